@@ -3,10 +3,8 @@ CREATE TABLE users
     username         VARCHAR(100) NOT NULL,
     password         VARCHAR(100) NOT NULL,
     name             VARCHAR(100) NOT NULL,
-    token            VARCHAR(100),
-    token_expired_at BIGINT,
-    PRIMARY KEY (username),
-    UNIQUE (token)
+    version          BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (username)
 ) ENGINE InnoDB;
 
 =======================================
@@ -19,7 +17,10 @@ CREATE TABLE contacts
     last_name  VARCHAR(100),
     phone      VARCHAR(100),
     email      VARCHAR(100),
+    version    BIGINT       NOT NULL DEFAULT 0,
+    deleted_at BIGINT,
     PRIMARY KEY (id),
+    INDEX idx_contacts_deleted_at (deleted_at),
     FOREIGN KEY fk_users_contacts (username) REFERENCES users (username)
 ) ENGINE InnoDB;
 
@@ -34,6 +35,59 @@ CREATE TABLE addresses
     province    VARCHAR(100),
     country     VARCHAR(100) NOT NULL,
     postal_code VARCHAR(10),
+    version     BIGINT       NOT NULL DEFAULT 0,
+    deleted_at  BIGINT,
     PRIMARY KEY (id),
+    INDEX idx_addresses_deleted_at (deleted_at),
     FOREIGN KEY fk_contacts_addresses (contact_id) REFERENCES contacts (id)
 ) ENGINE InnoDB;
+
+=======================================
+
+CREATE TABLE sessions
+(
+    token_hash BINARY(32)   NOT NULL,
+    username   VARCHAR(100) NOT NULL,
+    created_at BIGINT       NOT NULL,
+    expires_at BIGINT       NOT NULL,
+    PRIMARY KEY (token_hash),
+    INDEX idx_sessions_username (username),
+    INDEX idx_sessions_expires_at (expires_at),
+    FOREIGN KEY fk_users_sessions (username) REFERENCES users (username) ON DELETE CASCADE
+) ENGINE InnoDB;
+
+=======================================
+
+-- Upgrading a database that still stores plaintext tokens on users: start the application once, it moves the
+-- unexpired tokens to hashed sessions on startup, then drop the old columns.
+
+ALTER TABLE users
+    DROP INDEX token,
+    DROP INDEX idx_users_token_expired_at,
+    DROP COLUMN token,
+    DROP COLUMN token_expired_at;
+
+=======================================
+
+-- Upgrading a database created before optimistic locking: existing rows start at version 0.
+
+ALTER TABLE users
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE contacts
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE addresses
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+=======================================
+
+-- Upgrading a database created before soft delete.
+
+ALTER TABLE contacts
+    ADD COLUMN deleted_at BIGINT,
+    ADD INDEX idx_contacts_deleted_at (deleted_at);
+
+ALTER TABLE addresses
+    ADD COLUMN deleted_at BIGINT,
+    ADD INDEX idx_addresses_deleted_at (deleted_at);
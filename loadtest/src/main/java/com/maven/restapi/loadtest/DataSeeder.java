@@ -0,0 +1,88 @@
+package com.maven.restapi.loadtest;
+
+import com.maven.restapi.security.BCrypt;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Inserts the users, contacts and addresses of a run with batched JDBC statements. Data is generated from a fixed
+ * seed so two runs with the same settings search the same rows.
+ */
+@Slf4j
+public class DataSeeder {
+
+    public static final String PASSWORD = "password";
+
+    static final String[] FIRST_NAMES = {"Gerry", "Putra", "Andi", "Budi", "Citra", "Dewi", "Eko", "Fajar", "Gita",
+            "Hadi", "Indah", "Joko", "Kartika", "Lestari", "Made", "Nina", "Oki", "Putri", "Rina", "Sari"};
+
+    private static final String[] LAST_NAMES = {"Permana", "Santoso", "Wijaya", "Saputra", "Hidayat", "Pratama",
+            "Kusuma", "Nugroho", "Siregar", "Halim"};
+
+    private static final String[] CITIES = {"Jakarta", "Bandung", "Surabaya", "Medan", "Semarang", "Makassar"};
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    public DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<SeededUser> seed(LoadTestProperties properties) {
+        long start = System.nanoTime();
+        // Hashing once keeps seeding fast; every user logs in with the same password.
+        String password = BCrypt.hashpw(PASSWORD, BCrypt.gensalt());
+
+        List<SeededUser> users = new ArrayList<>(properties.getUsers());
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> contactRows = new ArrayList<>();
+        List<Object[]> addressRows = new ArrayList<>();
+
+        for (int i = 0; i < properties.getUsers(); i++) {
+            String username = "user" + i + "@loadtest.local";
+            userRows.add(new Object[]{username, password, "User " + i});
+
+            List<String> contactIds = new ArrayList<>(properties.getContactsPerUser());
+            for (int j = 0; j < properties.getContactsPerUser(); j++) {
+                String contactId = UUID.randomUUID().toString();
+                contactIds.add(contactId);
+                contactRows.add(new Object[]{contactId, username, pick(FIRST_NAMES), pick(LAST_NAMES),
+                        "contact" + j + "." + i + "@example.com", "0812" + (10_000_000 + random.nextInt(90_000_000))});
+
+                for (int k = 0; k < properties.getAddressesPerContact(); k++) {
+                    addressRows.add(new Object[]{UUID.randomUUID().toString(), contactId, "Jalan " + pick(LAST_NAMES),
+                            pick(CITIES), "Province", "Indonesia", String.valueOf(10_000 + random.nextInt(90_000))});
+                }
+            }
+            users.add(new SeededUser(username, contactIds));
+        }
+
+        insert("INSERT INTO users (username, password, name, version) VALUES (?, ?, ?, 0)", userRows);
+        insert("INSERT INTO contacts (id, username, first_name, last_name, email, phone, version) VALUES (?, ?, ?, ?, ?, ?, 0)",
+                contactRows);
+        insert("INSERT INTO addresses (id, contact_id, street, city, province, country, postal_code, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+                addressRows);
+
+        log.info("Seeded {} users, {} contacts and {} addresses in {} ms", userRows.size(), contactRows.size(),
+                addressRows.size(), (System.nanoTime() - start) / 1_000_000);
+        return users;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
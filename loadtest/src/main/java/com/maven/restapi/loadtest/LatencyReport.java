@@ -0,0 +1,79 @@
+package com.maven.restapi.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Latency per operation of the measured phase. Histograms hold microseconds and are reported in milliseconds.
+ */
+public class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1_000d;
+
+    private final Map<Operation, Histogram> histograms;
+
+    private final Map<Operation, Long> errors;
+
+    private final long elapsedNanos;
+
+    public LatencyReport(Map<Operation, Histogram> histograms, Map<Operation, Long> errors, long elapsedNanos) {
+        this.histograms = histograms;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public void print(PrintStream out) {
+        double seconds = elapsedNanos / 1_000_000_000d;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+
+        out.printf(Locale.ROOT, "%n%-16s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = errors.getOrDefault(entry.getKey(), 0L);
+            total.add(histogram);
+            totalErrors += operationErrors;
+            printRow(out, entry.getKey().name().toLowerCase(Locale.ROOT), histogram, operationErrors, seconds);
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+    }
+
+    /**
+     * Writes one HdrHistogram percentile distribution per operation, in milliseconds, for plotting or comparing runs.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf(Locale.ROOT, "%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,263 @@
+package com.maven.restapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maven.restapi.dto.CreateContactRequest;
+import com.maven.restapi.dto.LoginUserRequest;
+import com.maven.restapi.dto.UpdateContactRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the operation mix to the application and records the latency of every request, in microseconds, into one
+ * HdrHistogram {@link Recorder} per operation.
+ */
+@Slf4j
+public class LoadDriver {
+
+    private static final String TOKEN_HEADER = "X-API-TOKEN";
+
+    private final URI baseUri;
+
+    private final ObjectMapper objectMapper;
+
+    private final LoadTestProperties properties;
+
+    private final List<SeededUser> users;
+
+    private final HttpClient client;
+
+    private final Operation[] mix;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    private final List<Session> sessions = new ArrayList<>();
+
+    public LoadDriver(URI baseUri, ObjectMapper objectMapper, LoadTestProperties properties, List<SeededUser> users) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.users = users;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.mix = mixTable();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public LatencyReport run() throws Exception {
+        for (SeededUser user : users.subList(0, properties.getSessions())) {
+            sessions.add(new Session(user, login(user.getUsername())));
+        }
+
+        log.info("Warming up for {} with the {} model", properties.getWarmup(), properties.getModel());
+        runPhase(properties.getWarmup());
+        intervalHistograms();
+        errors.values().forEach(LongAdder::reset);
+
+        log.info("Measuring for {}", properties.getDuration());
+        long start = System.nanoTime();
+        runPhase(properties.getDuration());
+        long elapsed = System.nanoTime() - start;
+
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+        return new LatencyReport(intervalHistograms(), errorCounts, elapsed);
+    }
+
+    private void runPhase(Duration duration) throws InterruptedException {
+        if (duration.isZero()) {
+            return;
+        }
+        if ("open".equalsIgnoreCase(properties.getModel())) {
+            runOpen(duration);
+        } else {
+            runClosed(duration);
+        }
+    }
+
+    private void runClosed(Duration duration) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        long thinkNanos = properties.getThinkTime().toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(sessions.size());
+        for (Session session : sessions) {
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    execute(next(), session, System.nanoTime());
+                    if (thinkNanos > 0) {
+                        LockSupport.parkNanos(thinkNanos);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+    }
+
+    private void runOpen(Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double intervalNanos = 1_000_000_000d / properties.getRate();
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getWorkers());
+        for (long n = 0; ; n++) {
+            long intended = start + (long) (n * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Session session = sessions.get((int) (n % sessions.size()));
+            Operation operation = next();
+            executor.execute(() -> execute(operation, session, intended));
+        }
+        executor.shutdown();
+        executor.awaitTermination(60, TimeUnit.SECONDS);
+    }
+
+    private void execute(Operation operation, Session session, long startNanos) {
+        try {
+            HttpResponse<Void> response = client.send(request(operation, session), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                errors.get(operation).increment();
+            }
+        } catch (IOException e) {
+            errors.get(operation).increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorders.get(operation).recordValue(Math.max(1, (System.nanoTime() - startNanos) / 1_000));
+    }
+
+    private HttpRequest request(Operation operation, Session session) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String contactId = session.contactId(random);
+
+        return switch (operation) {
+            case SEARCH -> get(session, "/api/contacts?name="
+                    + DataSeeder.FIRST_NAMES[random.nextInt(DataSeeder.FIRST_NAMES.length)].substring(0, 3)
+                    + "&page=" + random.nextInt(3) + "&size=10");
+            case GET_CONTACT -> get(session, "/api/contacts/" + contactId);
+            case LIST_ADDRESSES -> get(session, "/api/contacts/" + contactId + "/addresses");
+            case CURRENT_USER -> get(session, "/api/users/current");
+            case CREATE_CONTACT -> json(session, "POST", "/api/contacts", CreateContactRequest.builder()
+                    .firstName("Load")
+                    .lastName("Test")
+                    .email("load" + random.nextInt(1_000_000) + "@example.com")
+                    .phone("0812" + (10_000_000 + random.nextInt(90_000_000)))
+                    .build());
+            case UPDATE_CONTACT -> json(session, "PATCH", "/api/contacts/" + contactId, UpdateContactRequest.builder()
+                    .firstName("Updated")
+                    .lastName("Contact" + random.nextInt(1_000))
+                    .email("updated" + random.nextInt(1_000_000) + "@example.com")
+                    .phone("0813" + (10_000_000 + random.nextInt(90_000_000)))
+                    .build());
+            case LOGIN -> json(null, "POST", "/api/auth/login", LoginUserRequest.builder()
+                    .username(users.get(properties.getSessions() + random.nextInt(users.size() - properties.getSessions())).getUsername())
+                    .password(DataSeeder.PASSWORD)
+                    .build());
+        };
+    }
+
+    private HttpRequest get(Session session, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header(TOKEN_HEADER, session.token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(Session session, String method, String path, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (session != null) {
+            builder.header(TOKEN_HEADER, session.token);
+        }
+        return builder.build();
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpRequest request = json(null, "POST", "/api/auth/login", LoginUserRequest.builder()
+                .username(username)
+                .password(DataSeeder.PASSWORD)
+                .build());
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("data").path("token").asText();
+    }
+
+    private Operation next() {
+        return mix[ThreadLocalRandom.current().nextInt(mix.length)];
+    }
+
+    private Operation[] mixTable() {
+        List<Operation> table = new ArrayList<>();
+        properties.getMix().forEach((operation, weight) -> {
+            // Login needs accounts that no session is using, logging in replaces the token of the account.
+            if (operation == Operation.LOGIN && users.size() <= properties.getSessions()) {
+                return;
+            }
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    private Map<Operation, Histogram> intervalHistograms() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return histograms;
+    }
+
+    private static class Session {
+
+        private final SeededUser user;
+
+        private final String token;
+
+        Session(SeededUser user, String token) {
+            this.user = user;
+            this.token = token;
+        }
+
+        String contactId(ThreadLocalRandom random) {
+            List<String> contactIds = user.getContactIds();
+            return contactIds.isEmpty() ? "none" : contactIds.get(random.nextInt(contactIds.size()));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.maven.restapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maven.restapi.RestapiApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Boots the application on a random port against an in-memory H2 database in MySQL mode, seeds it, drives the
+ * configured workload over HTTP and prints the latency report. Any {@code loadtest.*} property can be overridden on
+ * the command line, for example {@code --loadtest.model=open --loadtest.rate=1000}.
+ * <p>
+ * Exits with the application's exit code when the run completed, and with 1 after logging the error otherwise.
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RestapiApplication.class)
+                .profiles("loadtest")
+                .run(args);
+
+        try {
+            LoadTestProperties properties = Binder.get(context.getEnvironment())
+                    .bindOrCreate("loadtest", LoadTestProperties.class);
+            properties.validate();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            List<SeededUser> users = new DataSeeder(context.getBean(JdbcTemplate.class)).seed(properties);
+            LatencyReport report = new LoadDriver(URI.create("http://127.0.0.1:" + port),
+                    context.getBean(ObjectMapper.class), properties, users).run();
+
+            report.print(System.out);
+            report.write(Path.of(properties.getReportDirectory()));
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            SpringApplication.exit(context);
+            System.exit(1);
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,110 @@
+package com.maven.restapi.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bound from the {@code loadtest.*} properties, see {@code application-loadtest.properties} for the defaults.
+ */
+@Data
+public class LoadTestProperties {
+
+    private int users = 200;
+
+    private int contactsPerUser = 50;
+
+    private int addressesPerContact = 2;
+
+    /**
+     * Users logged in before the run; every request is sent with one of their tokens.
+     * Users beyond this count are only used by the login operation.
+     */
+    private int sessions = 32;
+
+    /**
+     * closed: each session sends its next request once the previous one completed.
+     * open: requests are started at a fixed rate whatever the response time, latency is measured from the
+     * intended start so queueing is not hidden.
+     */
+    private String model = "closed";
+
+    /**
+     * Requests per second of the open model.
+     */
+    private double rate = 500;
+
+    /**
+     * Threads available to the open model for requests in flight.
+     */
+    private int workers = 256;
+
+    private Duration thinkTime = Duration.ZERO;
+
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    private String reportDirectory = "target/loadtest";
+
+    /**
+     * Relative weight of each operation in the mix.
+     */
+    private Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    /**
+     * Rejects settings the driver cannot run with, listing every problem, before anything is seeded.
+     */
+    public void validate() {
+        List<String> problems = new ArrayList<>();
+        if (users <= 0) {
+            problems.add("loadtest.users must be positive, was " + users);
+        }
+        if (contactsPerUser <= 0) {
+            problems.add("loadtest.contacts-per-user must be positive, was " + contactsPerUser);
+        }
+        if (addressesPerContact < 0) {
+            problems.add("loadtest.addresses-per-contact must not be negative, was " + addressesPerContact);
+        }
+        if (sessions <= 0 || sessions > users) {
+            problems.add("loadtest.sessions must be between 1 and loadtest.users (" + users + "), was " + sessions);
+        }
+        if ("open".equalsIgnoreCase(model)) {
+            if (rate <= 0) {
+                problems.add("loadtest.rate must be positive, was " + rate);
+            }
+            if (workers <= 0) {
+                problems.add("loadtest.workers must be positive, was " + workers);
+            }
+        } else if (!"closed".equalsIgnoreCase(model)) {
+            problems.add("loadtest.model must be closed or open, was " + model);
+        }
+        if (Objects.isNull(thinkTime) || thinkTime.isNegative()) {
+            problems.add("loadtest.think-time must not be negative, was " + thinkTime);
+        }
+        if (Objects.isNull(warmup) || warmup.isNegative()) {
+            problems.add("loadtest.warmup must not be negative, was " + warmup);
+        }
+        if (Objects.isNull(duration) || duration.isNegative() || duration.isZero()) {
+            problems.add("loadtest.duration must be positive, was " + duration);
+        }
+        mix.forEach((operation, weight) -> {
+            if (Objects.isNull(weight) || weight < 0) {
+                problems.add("loadtest.mix." + operation.name().toLowerCase(Locale.ROOT).replace('_', '-') + " must not be negative, was " + weight);
+            }
+        });
+        if (mix.values().stream().noneMatch(weight -> Objects.nonNull(weight) && weight > 0)) {
+            problems.add("loadtest.mix has no operation with a positive weight");
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid load test settings: " + String.join("; ", problems));
+        }
+    }
+}
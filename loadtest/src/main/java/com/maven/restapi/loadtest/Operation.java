@@ -0,0 +1,11 @@
+package com.maven.restapi.loadtest;
+
+public enum Operation {
+    SEARCH,
+    GET_CONTACT,
+    LIST_ADDRESSES,
+    CURRENT_USER,
+    CREATE_CONTACT,
+    UPDATE_CONTACT,
+    LOGIN
+}
@@ -0,0 +1,15 @@
+package com.maven.restapi.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SeededUser {
+
+    private final String username;
+
+    private final List<String> contactIds;
+}
@@ -0,0 +1,86 @@
+package com.maven.restapi.loadtest;
+
+import com.maven.restapi.RestapiApplication;
+import com.maven.restapi.security.ExpiredTokenSweeper;
+import com.maven.restapi.security.TokenHasher;
+import com.maven.restapi.service.SoftDeletePurger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the batched delete jobs against the H2 database of the load test, with batches small enough to take several.
+ */
+@SpringBootTest(classes = RestapiApplication.class, properties = {
+        "restapi.token-sweeper.batch-size=2",
+        "restapi.token-sweeper.pause=0ms",
+        "restapi.purge.batch-size=2",
+        "restapi.purge.pause=0ms"
+})
+@ActiveProfiles("loadtest")
+class BatchJobsTest {
+
+    private static final long HOUR = 1000L * 60 * 60;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpiredTokenSweeper expiredTokenSweeper;
+
+    @Autowired
+    private SoftDeletePurger softDeletePurger;
+
+    private List<SeededUser> users;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM sessions");
+        jdbcTemplate.update("DELETE FROM addresses");
+        jdbcTemplate.update("DELETE FROM contacts");
+        jdbcTemplate.update("DELETE FROM users");
+
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.setUsers(2);
+        properties.setContactsPerUser(3);
+        properties.setAddressesPerContact(2);
+        users = new DataSeeder(jdbcTemplate).seed(properties);
+    }
+
+    @Test
+    void sweepsExpiredSessions() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            createSession("expired" + i, now - HOUR);
+        }
+        createSession("active", now + HOUR);
+
+        assertEquals(5, expiredTokenSweeper.sweep());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sessions", Integer.class));
+    }
+
+    @Test
+    void purgesDeletedContactsAndAddresses() {
+        long deletedAt = System.currentTimeMillis() - 2 * HOUR;
+        for (String contactId : users.get(0).getContactIds()) {
+            jdbcTemplate.update("UPDATE contacts SET deleted_at = ? WHERE id = ?", deletedAt, contactId);
+            jdbcTemplate.update("UPDATE addresses SET deleted_at = ? WHERE contact_id = ?", deletedAt, contactId);
+        }
+
+        assertEquals(9, softDeletePurger.purge());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts", Integer.class));
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM addresses", Integer.class));
+    }
+
+    private void createSession(String token, long expiresAt) {
+        jdbcTemplate.update("INSERT INTO sessions (token_hash, username, created_at, expires_at) VALUES (?, ?, ?, ?)",
+                TokenHasher.hash(token), users.get(0).getUsername(), System.currentTimeMillis(), expiresAt);
+    }
+}
@@ -0,0 +1,44 @@
+package com.maven.restapi.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestPropertiesTest {
+
+    @Test
+    void acceptsDefaultsWithAMix() {
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.getMix().put(Operation.SEARCH, 1);
+
+        assertDoesNotThrow(properties::validate);
+    }
+
+    @Test
+    void rejectsMoreSessionsThanUsers() {
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.getMix().put(Operation.SEARCH, 1);
+        properties.setUsers(20);
+        properties.setSessions(32);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, properties::validate);
+        assertTrue(exception.getMessage().contains("loadtest.sessions must be between 1 and loadtest.users (20), was 32"));
+    }
+
+    @Test
+    void listsEveryProblem() {
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.getMix().put(Operation.LOGIN, -1);
+        properties.setModel("open");
+        properties.setRate(0);
+        properties.setDuration(Duration.ZERO);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, properties::validate);
+        assertTrue(exception.getMessage().contains("loadtest.rate must be positive"));
+        assertTrue(exception.getMessage().contains("loadtest.duration must be positive"));
+        assertTrue(exception.getMessage().contains("loadtest.mix.login must not be negative"));
+        assertTrue(exception.getMessage().contains("loadtest.mix has no operation with a positive weight"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.maven.restapi;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfiguration {
+
+    /**
+     * The default scheduler for {@code @Scheduled} methods, built the way Spring Boot builds it. It has to be declared
+     * here because any other scheduler bean switches the auto-configured one off.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Runs the batched purge and sweep jobs, which pause between batches, so they never delay the short tasks on the
+     * default scheduler.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler batchJobScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                     @Value("${restapi.batch-jobs.pool-size:2}") int poolSize) {
+        return builder.poolSize(poolSize).threadNamePrefix("batch-job-").build();
+    }
+}
@@ -1,12 +1,31 @@
 package com.maven.restapi;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.maven.restapi.controller.ApiMediaType;
+import com.maven.restapi.controller.ConstantResponse;
+import com.maven.restapi.controller.ConstantResponseHttpMessageConverter;
+import com.maven.restapi.dto.WebResponse;
+import com.maven.restapi.interceptor.QueryBudgetInterceptor;
+import com.maven.restapi.interceptor.RateLimitInterceptor;
 import com.maven.restapi.resolver.UserArgumentResolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
@@ -14,9 +33,57 @@ public class WebConfiguration implements WebMvcConfigurer {
     @Autowired
     private UserArgumentResolver userArgumentResolver;
 
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private QueryBudgetInterceptor queryBudgetInterceptor;
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         WebMvcConfigurer.super.addArgumentResolvers(resolvers);
         resolvers.add(userArgumentResolver);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(queryBudgetInterceptor).addPathPatterns("/api/**");
+    }
+
+    // Spring Boot registers module beans with its builder, so JSON, CBOR and Smile all read and write the DTOs through
+    // generated accessors instead of reflection.
+    @Bean
+    public static BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Binary formats share the Spring Boot configured builder so they serialize exactly like JSON does.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public ConstantResponseHttpMessageConverter constantResponseHttpMessageConverter(ObjectMapper objectMapper,
+                                                                                     MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                                                                                     MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+        objectMappers.put(MediaType.parseMediaType(ApiMediaType.JSON), objectMapper);
+        objectMappers.put(MediaType.parseMediaType(ApiMediaType.CBOR), cborHttpMessageConverter.getObjectMapper());
+        objectMappers.put(MediaType.parseMediaType(ApiMediaType.SMILE), smileHttpMessageConverter.getObjectMapper());
+        return new ConstantResponseHttpMessageConverter(objectMappers)
+                .register(ConstantResponse.OK, ConstantResponse.CONTACT_OK);
+    }
+
+    // Built once for the envelopes serialized outside the message converters, ObjectMapper.writer*() allocates a new one.
+    @Bean
+    public ObjectWriter webResponseWriter(ObjectMapper objectMapper) {
+        return objectMapper.writerFor(WebResponse.class);
+    }
 }
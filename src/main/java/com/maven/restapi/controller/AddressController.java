@@ -1,16 +1,25 @@
 package com.maven.restapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.maven.restapi.dto.AddressResponse;
 import com.maven.restapi.dto.CreateAddressRequest;
 import com.maven.restapi.dto.UpdateAddressRequest;
 import com.maven.restapi.dto.WebResponse;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.monitoring.QueryBudget;
 import com.maven.restapi.service.AddressService;
+import com.maven.restapi.service.OptimisticRetry;
+import com.maven.restapi.service.SerializedResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 public class AddressController {
@@ -18,61 +27,97 @@ public class AddressController {
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
+    @Autowired
+    private ObjectWriter webResponseWriter;
+
     @PostMapping(
             path = "/api/contacts/{contactId}/addresses",
-            produces = MediaType.APPLICATION_JSON_VALUE,
-            consumes = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<String> create(User user,@PathVariable("contactId") String contactId, @RequestBody CreateAddressRequest request) {
+    @QueryBudget(statements = 3)
+    public ConstantResponse create(User user,@PathVariable("contactId") String contactId, @RequestBody CreateAddressRequest request) {
         request.setContactId(contactId);
         addressService.create(user, request);
-        return WebResponse.<String>builder().data("Ok").build();
+        return ConstantResponse.CONTACT_OK;
     }
 
     @GetMapping(
             path = "/api/contacts/{contactId}/addresses/{addressId}",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<AddressResponse> get(User user,
-                                            @PathVariable("contactId") String contactId,
-                                            @PathVariable("addressId") String addressId) {
-        AddressResponse addressResponse = addressService.get(user, contactId, addressId);
-        return WebResponse.<AddressResponse>builder().data(addressResponse).build();
+    @QueryBudget(statements = 3)
+    public ResponseEntity<?> get(User user,
+                                 @PathVariable("contactId") String contactId,
+                                 @PathVariable("addressId") String addressId,
+                                 @RequestParam(name = "fields", required = false) String fields,
+                                 @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        if (Objects.isNull(fields) && SerializedResponses.prefersJson(accept)) {
+            responseCache.get(SerializedResponseCache.Key.address(user.getUsername(), contactId, addressId), () -> {
+                AddressResponse addressResponse = addressService.get(user, contactId, addressId);
+                return SerializedResponses.serialize(webResponseWriter, addressResponse, addressResponse.getVersion());
+            }, (version, length, body) -> SerializedResponses.write(request, response, version, length, body));
+            return null;
+        }
+
+        AddressResponse addressResponse = addressService.get(user, contactId, addressId, fields);
+        EntityTags.write(response, addressResponse.getVersion());
+        return ResponseEntity.ok(WebResponse.<AddressResponse>builder().data(addressResponse).build());
     }
 
     @PutMapping(
             path = "/api/contacts/{contactId}/addresses/{addressId}",
-            produces = MediaType.APPLICATION_JSON_VALUE,
-            consumes = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
+    @QueryBudget(statements = 3)
     public WebResponse<AddressResponse> update(User user,
                                                @PathVariable("contactId") String contactId,
                                                @PathVariable("addressId") String addressId,
-                                               @RequestBody UpdateAddressRequest request) {
+                                               @RequestBody UpdateAddressRequest request,
+                                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               HttpServletResponse response) {
         request.setContactId(contactId);
         request.setAddressId(addressId);
-        AddressResponse addressResponse = addressService.update(user, request);
+        request.setVersion(EntityTags.parseIfMatch(ifMatch));
+
+        AddressResponse addressResponse = Objects.isNull(request.getVersion())
+                ? optimisticRetry.execute(() -> addressService.update(user, request))
+                : addressService.update(user, request);
+        EntityTags.write(response, addressResponse.getVersion());
 
         return WebResponse.<AddressResponse>builder().data(addressResponse).build();
     }
 
     @DeleteMapping(
             path = "/api/contacts/{contactId}/addresses/{addressId}",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<String> delete(User user,
-                                      @PathVariable("contactId") String contactId,
-                                      @PathVariable("addressId") String id) {
+    @QueryBudget(statements = 3)
+    public ConstantResponse delete(User user,
+                                   @PathVariable("contactId") String contactId,
+                                   @PathVariable("addressId") String id) {
         addressService.delete(user, contactId, id);
-        return WebResponse.<String>builder().data("Ok").build();
+        return ConstantResponse.CONTACT_OK;
     }
 
     @GetMapping(
             path = "/api/contacts/{contactId}/addresses",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<List<AddressResponse>> list(User user, @PathVariable("contactId") String contactId) {
-        List<AddressResponse> listResponses = addressService.list(user, contactId);
+    @QueryBudget(statements = 3)
+    public WebResponse<List<AddressResponse>> list(User user,
+                                                   @PathVariable("contactId") String contactId,
+                                                   @RequestParam(name = "fields", required = false) String fields) {
+        List<AddressResponse> listResponses = addressService.list(user, contactId, fields);
         return WebResponse.<List<AddressResponse>>builder()
                 .data(listResponses)
                 .build();
@@ -0,0 +1,15 @@
+package com.maven.restapi.controller;
+
+import org.springframework.http.MediaType;
+
+public final class ApiMediaType {
+
+    public static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private ApiMediaType() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.maven.restapi.controller;
+
+import com.maven.restapi.dto.WebResponse;
+
+/**
+ * A response body that does not change between requests. Instances registered with
+ * {@link ConstantResponseHttpMessageConverter} are serialized once per media type and written from the same bytes for
+ * every request after that.
+ */
+public final class ConstantResponse {
+
+    public static final ConstantResponse OK = new ConstantResponse(WebResponse.<String>builder().data("OK").build());
+
+    // The contact and address endpoints have always answered "Ok" rather than "OK".
+    public static final ConstantResponse CONTACT_OK = new ConstantResponse(WebResponse.<String>builder().data("Ok").build());
+
+    private final Object body;
+
+    public ConstantResponse(Object body) {
+        this.body = body;
+    }
+
+    public Object getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,93 @@
+package com.maven.restapi.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes {@link ConstantResponse} bodies, using the same {@link ObjectMapper} as the Jackson converter for the media
+ * type so the output does not change. Registered responses are serialized up front and written from those bytes;
+ * others are serialized on every write.
+ */
+public class ConstantResponseHttpMessageConverter extends AbstractHttpMessageConverter<ConstantResponse> {
+
+    private final Map<MediaType, ObjectMapper> objectMappers;
+
+    private final Map<ConstantResponse, Map<MediaType, byte[]>> serialized = new ConcurrentHashMap<>();
+
+    public ConstantResponseHttpMessageConverter(Map<MediaType, ObjectMapper> objectMappers) {
+        super(objectMappers.keySet().toArray(new MediaType[0]));
+        this.objectMappers = objectMappers;
+    }
+
+    public ConstantResponseHttpMessageConverter register(ConstantResponse... responses) {
+        for (ConstantResponse response : responses) {
+            Map<MediaType, byte[]> bytes = new ConcurrentHashMap<>();
+            objectMappers.keySet().forEach(mediaType -> bytes.put(mediaType, serialize(response, mediaType)));
+            serialized.put(response, bytes);
+        }
+        return this;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ConstantResponse.class.equals(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ConstantResponse readInternal(Class<? extends ConstantResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Constant responses are write only.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ConstantResponse response, MediaType contentType) {
+        byte[] bytes = registered(response, mediaType(contentType));
+        return Objects.isNull(bytes) ? null : (long) bytes.length;
+    }
+
+    @Override
+    protected void writeInternal(ConstantResponse response, HttpOutputMessage outputMessage) throws IOException {
+        MediaType mediaType = mediaType(outputMessage.getHeaders().getContentType());
+        byte[] bytes = registered(response, mediaType);
+        outputMessage.getBody().write(Objects.isNull(bytes) ? serialize(response, mediaType) : bytes);
+    }
+
+    private byte[] registered(ConstantResponse response, MediaType mediaType) {
+        Map<MediaType, byte[]> bytes = serialized.get(response);
+        return Objects.isNull(bytes) ? null : bytes.get(mediaType);
+    }
+
+    private MediaType mediaType(MediaType contentType) {
+        return Objects.isNull(contentType)
+                ? getSupportedMediaTypes().get(0)
+                : new MediaType(contentType.getType(), contentType.getSubtype());
+    }
+
+    private byte[] serialize(ConstantResponse response, MediaType mediaType) {
+        ObjectMapper objectMapper = objectMappers.get(mediaType);
+        if (Objects.isNull(objectMapper)) {
+            throw new HttpMessageNotWritableException("Unsupported media type " + mediaType + ".");
+        }
+
+        try {
+            return objectMapper.writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not serialize constant response.", e);
+        }
+    }
+}
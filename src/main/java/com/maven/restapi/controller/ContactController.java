@@ -1,14 +1,23 @@
 package com.maven.restapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.maven.restapi.dto.*;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.monitoring.QueryBudget;
 import com.maven.restapi.service.ContactService;
+import com.maven.restapi.service.OptimisticRetry;
+import com.maven.restapi.service.SerializedResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 public class ContactController {
@@ -16,11 +25,21 @@ public class ContactController {
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
+    @Autowired
+    private ObjectWriter webResponseWriter;
+
     @PostMapping(
             path = "/api/contacts",
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
+    @QueryBudget(statements = 2)
     public WebResponse<ContactResponse> create(User user, @RequestBody CreateContactRequest request) {
         ContactResponse contactResponse = contactService.create(user, request);
         return WebResponse.<ContactResponse>builder().data(contactResponse).build();
@@ -28,51 +47,91 @@ public class ContactController {
 
     @GetMapping(
             path = "/api/contacts/{contactId}",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<ContactResponse> get(User user, @PathVariable("contactId") String id) {
-        ContactResponse contactResponse = contactService.get(user, id);
-        return WebResponse.<ContactResponse>builder().data(contactResponse).build();
+    @QueryBudget(statements = 2)
+    public ResponseEntity<?> get(User user,
+                                 @PathVariable("contactId") String id,
+                                 @RequestParam(name = "fields", required = false) String fields,
+                                 @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        // The full JSON representation is cached serialized, field selections and binary formats are built each time.
+        if (Objects.isNull(fields) && SerializedResponses.prefersJson(accept)) {
+            responseCache.get(SerializedResponseCache.Key.contact(user.getUsername(), id), () -> {
+                ContactResponse contactResponse = contactService.get(user, id);
+                return SerializedResponses.serialize(webResponseWriter, contactResponse, contactResponse.getVersion());
+            }, (version, length, body) -> SerializedResponses.write(request, response, version, length, body));
+            // Already written, a null entity tells Spring MVC there is nothing left to render.
+            return null;
+        }
+
+        ContactResponse contactResponse = contactService.get(user, id, fields);
+        EntityTags.write(response, contactResponse.getVersion());
+        return ResponseEntity.ok(WebResponse.<ContactResponse>builder().data(contactResponse).build());
     }
 
     @PatchMapping(
             path = "/api/contacts/{contactId}",
-            produces = MediaType.APPLICATION_JSON_VALUE,
-            consumes = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
+    @QueryBudget(statements = 3)
     public WebResponse<ContactResponse> update(User user,
                                             @PathVariable("contactId") String id,
-                                            @RequestBody UpdateContactRequest request) {
+                                            @RequestBody UpdateContactRequest request,
+                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                            HttpServletResponse response) {
         request.setId(id);
-        ContactResponse contactResponse = contactService.update(user, request);
+        request.setVersion(EntityTags.parseIfMatch(ifMatch));
+
+        // Without If-Match the client accepts whatever version is current, so a lost race is simply retried.
+        ContactResponse contactResponse = Objects.isNull(request.getVersion())
+                ? optimisticRetry.execute(() -> contactService.update(user, request))
+                : contactService.update(user, request);
+        EntityTags.write(response, contactResponse.getVersion());
         return WebResponse.<ContactResponse>builder().data(contactResponse).build();
     }
 
     @DeleteMapping(
             path = "/api/contacts/{contactId}",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<String> delete(User user, @PathVariable("contactId") String id) {
+    @QueryBudget(statements = 3)
+    public ConstantResponse delete(User user, @PathVariable("contactId") String id) {
         contactService.delete(user, id);
-        return WebResponse.<String>builder().data("Ok").build();
+        return ConstantResponse.CONTACT_OK;
+    }
+
+    @DeleteMapping(
+            path = "/api/contacts",
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
+    )
+    @QueryBudget(statements = 3)
+    public WebResponse<Integer> deleteAll(User user, @RequestParam(name = "ids") List<String> ids) {
+        int deleted = contactService.deleteAll(user, ids);
+        return WebResponse.<Integer>builder().data(deleted).build();
     }
 
     @GetMapping(
             path = "/api/contacts",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
+    @QueryBudget(statements = 3)
     public WebResponse<List<ContactResponse>> search(User user,
                                                      @RequestParam(name = "name", required = false) String name,
                                                      @RequestParam(name = "email", required = false) String email,
                                                      @RequestParam(name = "phone", required = false) String phone,
                                                      @RequestParam(name = "page", required = true, defaultValue = "0") Integer page,
-                                                     @RequestParam(name = "size", required = true, defaultValue = "10") Integer size) {
+                                                     @RequestParam(name = "size", required = true, defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "fields", required = false) String fields) {
         SearchContactRequest searchContactRequest = SearchContactRequest.builder()
                 .page(page)
                 .size(size)
                 .name(name)
                 .email(email)
                 .phone(phone)
+                .fields(fields)
                 .build();
 
         Page<ContactResponse> contactResponses = contactService.search(user, searchContactRequest);
@@ -0,0 +1,48 @@
+package com.maven.restapi.controller;
+
+import com.maven.restapi.exception.PreconditionFailedException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Objects;
+
+/**
+ * Maps entity versions to strong {@code ETag} values and back from {@code If-Match} headers.
+ */
+final class EntityTags {
+
+    private static final PreconditionFailedException UNKNOWN_VERSION = new PreconditionFailedException("If-Match does not match any version.");
+
+    private EntityTags() {
+    }
+
+    static void write(HttpServletResponse response, Long version) {
+        if (Objects.nonNull(version)) {
+            response.setHeader(HttpHeaders.ETAG, "\"" + version + "\"");
+        }
+    }
+
+    /**
+     * @return the version the client expects, or null when any version is accepted.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (Objects.isNull(ifMatch) || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            // If-Match only uses strong comparison, see RFC 9110 section 13.1.1.
+            throw UNKNOWN_VERSION;
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw UNKNOWN_VERSION;
+        }
+
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw UNKNOWN_VERSION;
+        }
+    }
+}
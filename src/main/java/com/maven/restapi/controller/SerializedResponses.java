@@ -0,0 +1,91 @@
+package com.maven.restapi.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.maven.restapi.dto.WebResponse;
+import com.maven.restapi.service.SerializedResponseCache.Serialized;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Serializes JSON envelopes for {@link com.maven.restapi.service.SerializedResponseCache} and writes them back
+ * without going through Jackson again.
+ */
+final class SerializedResponses {
+
+    private static final MediaType SMILE = MediaType.parseMediaType(ApiMediaType.SMILE);
+
+    private SerializedResponses() {
+    }
+
+    static Serialized serialize(ObjectWriter webResponseWriter, Object data, Long version) {
+        try {
+            return new Serialized(webResponseWriter.writeValueAsBytes(WebResponse.builder().data(data).build()), version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the envelope straight to the response, or only a 304 when the client already has this version.
+     */
+    static void write(HttpServletRequest request, HttpServletResponse response, Long version, int length,
+                      ByteBuffer[] body) throws IOException {
+        EntityTags.write(response, version);
+        if (Objects.nonNull(version)
+                && new ServletWebRequest(request, response).checkNotModified(response.getHeader(HttpHeaders.ETAG))) {
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(length);
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        for (ByteBuffer buffer : body) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * @return whether content negotiation would pick JSON, the first type every endpoint produces.
+     */
+    static boolean prefersJson(String accept) {
+        if (Objects.isNull(accept) || accept.isBlank()) {
+            return true;
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR) || mediaType.isCompatibleWith(SMILE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
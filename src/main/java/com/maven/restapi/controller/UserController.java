@@ -5,9 +5,9 @@ import com.maven.restapi.dto.UpdateUserRequest;
 import com.maven.restapi.dto.UserResponse;
 import com.maven.restapi.dto.WebResponse;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.monitoring.QueryBudget;
 import com.maven.restapi.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,18 +18,20 @@ public class UserController {
 
     @PostMapping(
             path = "/api/users",
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<String> register(@RequestBody RegisterUserRequest request) {
+    @QueryBudget(statements = 2)
+    public ConstantResponse register(@RequestBody RegisterUserRequest request) {
         userService.register(request);
-        return WebResponse.<String>builder().data("OK").build();
+        return ConstantResponse.OK;
     }
 
     @GetMapping(
             path = "/api/users/current",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
+    @QueryBudget(statements = 1)
     public WebResponse<UserResponse> get(User user) {
         UserResponse userResponse = userService.get(user);
         return WebResponse.<UserResponse>builder().data(userResponse).build();
@@ -37,9 +39,10 @@ public class UserController {
 
     @PatchMapping(
             path = "/api/users/current",
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
+    @QueryBudget(statements = 2)
     public WebResponse<UserResponse> update(User user, @RequestBody UpdateUserRequest request) {
         UserResponse userResponse = userService.update(user, request);
         return WebResponse.<UserResponse>builder().data(userResponse).build();
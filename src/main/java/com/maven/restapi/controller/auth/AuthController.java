@@ -1,17 +1,21 @@
 package com.maven.restapi.controller.auth;
 
+import com.maven.restapi.controller.ApiMediaType;
+import com.maven.restapi.controller.ConstantResponse;
 import com.maven.restapi.dto.LoginUserRequest;
 import com.maven.restapi.dto.TokenResponse;
 import com.maven.restapi.dto.WebResponse;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.monitoring.QueryBudget;
 import com.maven.restapi.service.UserService;
 import com.maven.restapi.service.auth.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.antlr.v4.runtime.Token;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -22,21 +26,24 @@ public class AuthController {
 
     @PostMapping(
             path = "/api/auth/login",
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE
+            consumes = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE},
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<TokenResponse> login(@RequestBody LoginUserRequest request) {
+    @QueryBudget(statements = 4)
+    public WebResponse<TokenResponse> login(@RequestBody LoginUserRequest request, HttpServletRequest servletRequest) {
+        request.setRemoteAddress(servletRequest.getRemoteAddr());
         TokenResponse tokenResponse = authService.login(request);
         return WebResponse.<TokenResponse>builder().data(tokenResponse).build();
     }
 
     @DeleteMapping(
             path = "/api/auth/logout",
-            produces = MediaType.APPLICATION_JSON_VALUE
+            produces = {ApiMediaType.JSON, ApiMediaType.CBOR, ApiMediaType.SMILE}
     )
-    public WebResponse<String> logout(User user) {
-        authService.logout(user);
-        return WebResponse.<String>builder().data("OK").build();
+    @QueryBudget(statements = 2)
+    public ConstantResponse logout(User user, @RequestHeader("X-API-TOKEN") String token) {
+        authService.logout(user, token);
+        return ConstantResponse.OK;
     }
 
 }
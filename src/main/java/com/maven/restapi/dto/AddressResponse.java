@@ -1,5 +1,7 @@
 package com.maven.restapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AddressResponse {
 
     private String id;
@@ -23,4 +26,7 @@ public class AddressResponse {
 
     private String postalCode;
 
+    @JsonIgnore
+    private Long version;
+
 }
@@ -1,5 +1,7 @@
 package com.maven.restapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ContactResponse {
 
     private String id;
@@ -21,4 +24,7 @@ public class ContactResponse {
 
     private String phone;
 
+    @JsonIgnore
+    private Long version;
+
 }
@@ -1,5 +1,6 @@
 package com.maven.restapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -20,4 +21,7 @@ public class LoginUserRequest {
     @NotBlank
     private String password;
 
+    @JsonIgnore
+    private String remoteAddress;
+
 }
@@ -24,4 +24,6 @@ public class SearchContactRequest {
     @NotNull
     private Integer size;
 
+    private String fields;
+
 }
@@ -23,6 +23,9 @@ public class UpdateAddressRequest {
     @JsonIgnore
     private String addressId;
 
+    @JsonIgnore
+    private Long version;
+
     @Size(max = 200)
     private String street;
 
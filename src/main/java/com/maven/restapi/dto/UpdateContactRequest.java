@@ -19,6 +19,9 @@ public class UpdateContactRequest {
     @NotBlank
     private String id;
 
+    @JsonIgnore
+    private Long version;
+
     @NotBlank
     @Size(max = 100)
     private String firstName;
@@ -0,0 +1,19 @@
+package com.maven.restapi.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base class for expected 4xx errors. These are control flow, not bugs, so they skip the stack trace and
+ * suppression bookkeeping; that makes them cheap to throw and safe to preallocate as constants.
+ */
+@Getter
+public class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public ApiException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+}
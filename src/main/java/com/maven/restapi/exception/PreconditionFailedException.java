@@ -0,0 +1,10 @@
+package com.maven.restapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends ApiException {
+
+    public PreconditionFailedException(String message) {
+        super(HttpStatus.PRECONDITION_FAILED, message);
+    }
+}
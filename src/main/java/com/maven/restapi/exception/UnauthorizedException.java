@@ -0,0 +1,12 @@
+package com.maven.restapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class UnauthorizedException extends ApiException {
+
+    public static final UnauthorizedException UNAUTHORIZED = new UnauthorizedException("Unauthorized");
+
+    public UnauthorizedException(String message) {
+        super(HttpStatus.UNAUTHORIZED, message);
+    }
+}
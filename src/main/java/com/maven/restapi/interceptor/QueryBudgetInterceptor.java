@@ -0,0 +1,50 @@
+package com.maven.restapi.interceptor;
+
+import com.maven.restapi.monitoring.QueryBudget;
+import com.maven.restapi.monitoring.QueryStats;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Objects;
+
+/**
+ * Applies the {@link QueryBudget} of the handler to the request's {@link QueryStats}. With
+ * {@code restapi.query-budget.mode=fail} the statement that goes over the budget throws, otherwise the request is
+ * logged once it completes.
+ */
+@Slf4j
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private final boolean fail;
+
+    public QueryBudgetInterceptor(@Value("${restapi.query-budget.mode:log}") String mode) {
+        this.fail = "fail".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats stats = QueryStats.current();
+        if (Objects.nonNull(stats) && handler instanceof HandlerMethod method) {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (Objects.nonNull(budget)) {
+                stats.setBudget(budget.statements(), fail);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryStats stats = QueryStats.current();
+        if (Objects.nonNull(stats) && stats.isOverBudget()) {
+            log.warn("{} {} executed {} statements in {} ms, budget is {}", request.getMethod(), request.getRequestURI(),
+                    stats.getStatements(), stats.getElapsedNanos() / 1_000_000, stats.getBudget());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.maven.restapi.interceptor;
+
+import com.maven.restapi.exception.TooManyRequestsException;
+import com.maven.restapi.security.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits requests per source address. Interceptors run before argument resolution, so a rejected request never
+ * reaches the token lookup in {@link com.maven.restapi.resolver.UserArgumentResolver}.
+ * <p>
+ * The per user limit is checked by the resolver once the token has resolved to a session, so made-up tokens only
+ * count against the address they come from and cannot crowd real users out of {@link #tokenLimiter}.
+ * <p>
+ * The source address is {@link HttpServletRequest#getRemoteAddr()}. With {@code server.forward-headers-strategy=native}
+ * Tomcat's remote IP valve replaces it with the client from {@code X-Forwarded-For}, but only for requests sent by
+ * one of {@code server.tomcat.remoteip.internal-proxies}, so clients cannot choose their own key.
+ */
+@Getter
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter ipLimiter;
+
+    private final RateLimiter tokenLimiter;
+
+    public RateLimitInterceptor(@Value("${restapi.rate-limit.ip.permits-per-second:50}") double ipPermitsPerSecond,
+                                @Value("${restapi.rate-limit.ip.burst:100}") int ipBurst,
+                                @Value("${restapi.rate-limit.token.permits-per-second:20}") double tokenPermitsPerSecond,
+                                @Value("${restapi.rate-limit.token.burst:40}") int tokenBurst,
+                                @Value("${restapi.rate-limit.max-keys:100000}") int maxKeys) {
+        this.ipLimiter = new RateLimiter(ipPermitsPerSecond, ipBurst, maxKeys);
+        this.tokenLimiter = new RateLimiter(tokenPermitsPerSecond, tokenBurst, maxKeys);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        check(ipLimiter, request.getRemoteAddr());
+        return true;
+    }
+
+    public void checkUser(String username) {
+        check(tokenLimiter, username);
+    }
+
+    private void check(RateLimiter limiter, String key) {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+    }
+}
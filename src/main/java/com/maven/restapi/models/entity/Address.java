@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.List;
 
@@ -13,7 +15,9 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "addresses")
+@DynamicUpdate
+@SQLRestriction("deleted_at IS NULL")
+@Table(name = "addresses", indexes = @Index(name = "idx_addresses_deleted_at", columnList = "deleted_at"))
 public class Address {
 
     @Id
@@ -30,6 +34,12 @@ public class Address {
     @Column(name = "postal_code")
     private String postalCode;
 
+    @Version
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private Long deletedAt;
+
     @ManyToOne
     @JoinColumn(name = "contact_id", referencedColumnName = "id")
     private Contact contact;
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.List;
 
@@ -13,7 +15,9 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "contacts")
+@DynamicUpdate
+@SQLRestriction("deleted_at IS NULL")
+@Table(name = "contacts", indexes = @Index(name = "idx_contacts_deleted_at", columnList = "deleted_at"))
 public class Contact {
 
     @Id
@@ -29,6 +33,12 @@ public class Contact {
 
     private String email;
 
+    @Version
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private Long deletedAt;
+
     @ManyToOne
     @JoinColumn(name = "username", referencedColumnName = "username")
     private User user;
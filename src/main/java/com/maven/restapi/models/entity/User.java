@@ -23,10 +23,8 @@ public class User {
 
     private String name;
 
-    private String token;
-
-    @Column(name = "token_expired_at")
-    private Long tokenExpiredAt;
+    @Version
+    private Long version;
 
     @OneToMany(mappedBy = "user")
     private List<Contact> contacts;
@@ -0,0 +1,62 @@
+package com.maven.restapi.models.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One logged in client. Keyed by the SHA-256 digest of its token, so a user can hold several sessions and the
+ * token itself is never stored.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_username", columnList = "username"),
+        @Index(name = "idx_sessions_expires_at", columnList = "expires_at")
+})
+public class UserSession implements Persistable<byte[]> {
+
+    @Id
+    @Column(name = "token_hash", length = 32, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "username", referencedColumnName = "username")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "created_at")
+    private Long createdAt;
+
+    @Column(name = "expires_at")
+    private Long expiresAt;
+
+    // The id is assigned before saving, so Spring Data needs this to persist new sessions without a select first.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    public byte[] getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -2,9 +2,15 @@ package com.maven.restapi.models.repository;
 
 import com.maven.restapi.models.entity.Address;
 import com.maven.restapi.models.entity.Contact;
+import com.maven.restapi.models.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +19,20 @@ public interface AddressRepository extends JpaRepository<Address, String> {
 
     Optional<Address> findFirstByContactAndId(Contact contact, String s);
 
+    @EntityGraph(attributePaths = "contact")
+    Optional<Address> findFirstByContactUserAndContactIdAndId(User user, String contactId, String id);
+
     List<Address> findAllByContact(Contact contact);
+
+    @Modifying
+    @Query("update Address a set a.deletedAt = :deletedAt, a.version = a.version + 1 where a.deletedAt is null "
+            + "and a.contact.id in (select c.id from Contact c where c.user = :user and c.id in :contactIds)")
+    int softDeleteByContactUserAndContactIdIn(@Param("user") User user, @Param("contactIds") Collection<String> contactIds,
+                                              @Param("deletedAt") long deletedAt);
+
+    @Modifying
+    @Query("update Address a set a.deletedAt = :deletedAt, a.version = a.version + 1 where a.id = :id and a.deletedAt is null "
+            + "and a.contact.id in (select c.id from Contact c where c.user = :user and c.id = :contactId)")
+    int softDeleteByContactUserAndContactIdAndId(@Param("user") User user, @Param("contactId") String contactId,
+                                                 @Param("id") String id, @Param("deletedAt") long deletedAt);
 }
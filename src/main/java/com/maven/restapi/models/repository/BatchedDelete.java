@@ -0,0 +1,62 @@
+package com.maven.restapi.models.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deletes rows a batch at a time: selects the keys of the next batch in index order, then deletes those rows by key,
+ * until a batch comes back short, pausing between batches and stopping after the configured number of batches. Both
+ * statements are plain SQL, unlike {@code DELETE ... ORDER BY ... LIMIT}, and each delete is auto-committed, so it
+ * only locks one batch of rows.
+ */
+public class BatchedDelete {
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final long pauseMillis;
+
+    public BatchedDelete(int batchSize, int maxBatches, Duration pause) {
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMillis = pause.toMillis();
+    }
+
+    /**
+     * @param select a query for the keys of the next batch, in index order, whose last parameter is the batch size.
+     * @param delete a {@code DELETE} that takes the same leading parameters, so it re-checks the condition, and ends
+     *               in {@code IN}; the key list is appended to it.
+     * @return the number of rows removed.
+     */
+    public int execute(JdbcTemplate jdbcTemplate, String select, String delete, Object... args) {
+        Object[] selectArguments = Arrays.copyOf(args, args.length + 1);
+        selectArguments[args.length] = batchSize;
+
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Object> keys = jdbcTemplate.queryForList(select, Object.class, selectArguments);
+            if (!keys.isEmpty()) {
+                Object[] deleteArguments = Arrays.copyOf(args, args.length + keys.size());
+                System.arraycopy(keys.toArray(), 0, deleteArguments, args.length, keys.size());
+                total += jdbcTemplate.update(delete + " (" + String.join(", ", Collections.nCopies(keys.size(), "?")) + ")",
+                        deleteArguments);
+            }
+            if (keys.size() < batchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -4,8 +4,12 @@ import com.maven.restapi.models.entity.Contact;
 import com.maven.restapi.models.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +17,11 @@ public interface ContactRepository extends JpaRepository<Contact, String>, JpaSp
 
     Optional<Contact> findFirstByUserAndId(User user, String id);
 
+    boolean existsByUserAndId(User user, String id);
+
+    @Modifying
+    @Query("update Contact c set c.deletedAt = :deletedAt, c.version = c.version + 1 "
+            + "where c.user = :user and c.id in :ids and c.deletedAt is null")
+    int softDeleteByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<String> ids, @Param("deletedAt") long deletedAt);
+
 }
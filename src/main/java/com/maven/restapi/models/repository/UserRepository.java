@@ -2,12 +2,20 @@ package com.maven.restapi.models.repository;
 
 import com.maven.restapi.models.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
 public interface UserRepository  extends JpaRepository<User, String> {
 
-    Optional<User> findFirstByToken(String token);
+    /**
+     * Null arguments keep the current value. Updates nothing unless the row still has the given version.
+     */
+    @Modifying
+    @Query("update User u set u.name = coalesce(:name, u.name), u.password = coalesce(:password, u.password), "
+            + "u.version = u.version + 1 where u.username = :username and u.version = :version")
+    int updateProfile(@Param("username") String username, @Param("version") Long version,
+                      @Param("name") String name, @Param("password") String password);
 }
@@ -0,0 +1,26 @@
+package com.maven.restapi.models.repository;
+
+import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.entity.UserSession;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, byte[]> {
+
+    @EntityGraph(attributePaths = "user")
+    Optional<UserSession> findFirstByTokenHash(byte[] tokenHash);
+
+    List<UserSession> findByUserOrderByExpiresAtAsc(User user);
+
+    @Modifying
+    @Query("delete from UserSession s where s.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") byte[] tokenHash);
+}
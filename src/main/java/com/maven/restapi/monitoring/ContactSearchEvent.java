@@ -0,0 +1,28 @@
+package com.maven.restapi.monitoring;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("com.maven.restapi.ContactSearch")
+@Label("Contact Search")
+@Category({"Restapi", "Persistence"})
+@StackTrace(false)
+@Setter
+public class ContactSearchEvent extends Event {
+
+    @Label("Page")
+    private int page;
+
+    @Label("Page Size")
+    private int size;
+
+    @Label("Projected")
+    @Description("Only the fields named by the fields parameter were selected")
+    private boolean projected;
+
+    @Label("Result Size")
+    private int resultSize;
+
+    @Label("Total Elements")
+    private long totalElements;
+}
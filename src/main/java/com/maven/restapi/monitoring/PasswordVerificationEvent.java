@@ -0,0 +1,19 @@
+package com.maven.restapi.monitoring;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("com.maven.restapi.PasswordVerification")
+@Label("Password Verification")
+@Description("BCrypt verification of a login password")
+@Category({"Restapi", "Auth"})
+@StackTrace(false)
+@Setter
+public class PasswordVerificationEvent extends Event {
+
+    @Label("Log Rounds")
+    private int logRounds;
+
+    @Label("Matched")
+    private boolean matched;
+}
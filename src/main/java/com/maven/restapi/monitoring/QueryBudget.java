@@ -0,0 +1,15 @@
+package com.maven.restapi.monitoring;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares how many JDBC statements a controller method may execute per request, token lookup included.
+ * Enforced by {@link com.maven.restapi.interceptor.QueryBudgetInterceptor}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int statements();
+}
@@ -0,0 +1,8 @@
+package com.maven.restapi.monitoring;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(int budget, String sql) {
+        super("Query budget of " + budget + " statements exceeded by: " + sql);
+    }
+}
@@ -0,0 +1,85 @@
+package com.maven.restapi.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement into {@code restapi.jdbc.statements}, adds it to the request's {@link QueryStats} and
+ * logs statements slower than the threshold. Only the SQL text is logged, never the bind parameters.
+ */
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final String START = "restapi.start";
+
+    private static final String[] TYPES = {"select", "insert", "update", "delete", "other"};
+
+    private final Timer[] timers = new Timer[TYPES.length];
+
+    private final long slowNanos;
+
+    public QueryMetricsListener(MeterRegistry registry, Duration slowThreshold) {
+        for (int i = 0; i < TYPES.length; i++) {
+            timers[i] = Timer.builder("restapi.jdbc.statements")
+                    .description("JDBC statement execution time")
+                    .tag("type", TYPES[i])
+                    .register(registry);
+        }
+        this.slowNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryStats.current();
+        if (Objects.nonNull(stats) && !queryInfoList.isEmpty()) {
+            stats.beforeStatement(queryInfoList.get(0).getQuery());
+        }
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (Objects.isNull(start) || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - start;
+        String query = queryInfoList.get(0).getQuery();
+        int type = type(query);
+        timers[type].record(nanos, TimeUnit.NANOSECONDS);
+
+        QueryStats stats = QueryStats.current();
+        if (Objects.nonNull(stats)) {
+            stats.record(query, type == 0, nanos);
+        }
+
+        if (nanos >= slowNanos) {
+            log.warn("Slow {} statement took {} ms{} (bind parameters redacted): {}",
+                    TYPES[type], nanos / 1_000_000, execInfo.isBatch() ? " as batch of " + execInfo.getBatchSize() : "",
+                    query);
+        }
+    }
+
+    static int type(String query) {
+        int offset = 0;
+        while (offset < query.length() && (Character.isWhitespace(query.charAt(offset)) || query.charAt(offset) == '(')) {
+            offset++;
+        }
+        for (int i = 0; i < TYPES.length - 1; i++) {
+            if (query.regionMatches(true, offset, TYPES[i], 0, TYPES[i].length())) {
+                return i;
+            }
+        }
+        return TYPES.length - 1;
+    }
+}
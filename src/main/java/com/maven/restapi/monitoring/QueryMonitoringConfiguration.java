@@ -0,0 +1,43 @@
+package com.maven.restapi.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the pool in a datasource-proxy so every statement goes through {@link QueryMetricsListener}.
+ */
+@Configuration
+public class QueryMonitoringConfiguration {
+
+    @Bean
+    public QueryMetricsListener queryMetricsListener(MeterRegistry registry,
+                                                     @Value("${restapi.query-log.slow-threshold:200ms}") Duration slowThreshold) {
+        return new QueryMetricsListener(registry, slowThreshold);
+    }
+
+    // Static and lazy so the post processor does not pull the meter registry in before the other post processors.
+    @Bean
+    public static BeanPostProcessor queryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.maven.restapi.monitoring;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC statements executed by the current request. Bound to the request thread by {@link QueryStatsFilter} and
+ * also exposed as the {@link #ATTRIBUTE} request attribute, so tests can assert on it after the response is written.
+ * <p>
+ * Only the count and time are kept for the first {@code captureAfter} statements. The SQL text, and the repeated
+ * select counts built from it, are recorded from the next statement on, so a request that stays under the
+ * threshold allocates nothing per statement.
+ */
+@Getter
+public class QueryStats {
+
+    public static final String ATTRIBUTE = QueryStats.class.getName();
+
+    private static final int MAX_RECORDED = 100;
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private long elapsedNanos;
+
+    @Getter(AccessLevel.NONE)
+    private final int captureAfter;
+
+    private List<String> sql;
+
+    @Getter(AccessLevel.NONE)
+    private Map<String, Integer> selects;
+
+    private String mostRepeatedSelect;
+
+    private int mostRepeatedSelectCount;
+
+    private int budget = -1;
+
+    @Getter(AccessLevel.NONE)
+    private boolean failOverBudget;
+
+    private QueryStats(int captureAfter) {
+        this.captureAfter = captureAfter;
+    }
+
+    public static QueryStats begin(int captureAfter) {
+        QueryStats stats = new QueryStats(captureAfter);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public void setBudget(int statements, boolean fail) {
+        this.budget = statements;
+        this.failOverBudget = fail;
+    }
+
+    public boolean isOverBudget() {
+        return budget >= 0 && statements > budget;
+    }
+
+    void beforeStatement(String query) {
+        if (failOverBudget && statements >= budget) {
+            throw new QueryBudgetExceededException(budget, query);
+        }
+    }
+
+    void record(String query, boolean select, long nanos) {
+        statements++;
+        elapsedNanos += nanos;
+        if (statements <= captureAfter) {
+            return;
+        }
+
+        if (Objects.isNull(sql)) {
+            sql = new ArrayList<>();
+            selects = new HashMap<>();
+        }
+        if (sql.size() < MAX_RECORDED) {
+            sql.add(query);
+        }
+
+        if (select) {
+            int count = selects.merge(query, 1, Integer::sum);
+            if (count > mostRepeatedSelectCount) {
+                mostRepeatedSelectCount = count;
+                mostRepeatedSelect = query;
+            }
+        }
+    }
+
+    public List<String> getSql() {
+        return Objects.isNull(sql) ? List.of() : Collections.unmodifiableList(sql);
+    }
+}
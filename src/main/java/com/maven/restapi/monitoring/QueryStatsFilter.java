@@ -0,0 +1,57 @@
+package com.maven.restapi.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Collects {@link QueryStats} for each request and flags likely N+1 patterns: the same SELECT executed at least
+ * {@code restapi.query-log.n-plus-one-threshold} times within one request. SQL text is only recorded, and repeats
+ * only counted, once a request has run that many statements, or from the first statement with
+ * {@code restapi.query-log.capture-sql=true}.
+ */
+@Slf4j
+@Component
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private final int nPlusOneThreshold;
+
+    private final int captureAfter;
+
+    public QueryStatsFilter(@Value("${restapi.query-log.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                            @Value("${restapi.query-log.capture-sql:false}") boolean captureSql) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.captureAfter = captureSql ? 0 : nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin(captureAfter);
+        request.setAttribute(QueryStats.ATTRIBUTE, stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStats.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        if (stats.getMostRepeatedSelectCount() >= nPlusOneThreshold) {
+            log.warn("Possible N+1 on {} {}: same select executed {} times: {}", request.getMethod(),
+                    request.getRequestURI(), stats.getMostRepeatedSelectCount(), stats.getMostRepeatedSelect());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} {} executed {} statements in {} ms", request.getMethod(), request.getRequestURI(),
+                    stats.getStatements(), stats.getElapsedNanos() / 1_000_000);
+        }
+    }
+}
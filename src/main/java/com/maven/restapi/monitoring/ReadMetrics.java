@@ -0,0 +1,67 @@
+package com.maven.restapi.monitoring;
+
+import com.maven.restapi.service.AddressService;
+import com.maven.restapi.service.ContactSearchCache;
+import com.maven.restapi.service.ContactService;
+import com.maven.restapi.service.SerializedResponseCache;
+import com.maven.restapi.service.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReadMetrics implements MeterBinder {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private ContactSearchCache contactSearchCache;
+
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindSingleFlight(registry, "contact", contactService.getReads());
+        bindSingleFlight(registry, "addresses", addressService.getLists());
+        CaffeineCacheMetrics.monitor(registry, contactSearchCache.getCache(), "contact-search");
+        bindResponseCache(registry, serializedResponseCache);
+    }
+
+    private void bindResponseCache(MeterRegistry registry, SerializedResponseCache cache) {
+        FunctionCounter.builder("restapi.response-cache.gets", cache, SerializedResponseCache::getHits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("restapi.response-cache.gets", cache, SerializedResponseCache::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("restapi.response-cache.evictions", cache, SerializedResponseCache::getEvictions)
+                .register(registry);
+        Gauge.builder("restapi.response-cache.used", cache, SerializedResponseCache::getUsedBytes)
+                .description("Bytes of the off-heap arena holding cached responses")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void bindSingleFlight(MeterRegistry registry, String name, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("restapi.singleflight.loads", singleFlight, SingleFlight::getLoads)
+                .description("Reads that went to the database")
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("restapi.singleflight.coalesced", singleFlight, SingleFlight::getCoalesced)
+                .description("Reads answered with the result of an identical read already in flight")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("restapi.singleflight.inflight", singleFlight, SingleFlight::size)
+                .tag("name", name)
+                .register(registry);
+    }
+}
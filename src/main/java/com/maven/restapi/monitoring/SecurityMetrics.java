@@ -0,0 +1,70 @@
+package com.maven.restapi.monitoring;
+
+import com.maven.restapi.interceptor.RateLimitInterceptor;
+import com.maven.restapi.security.ExpiredTokenSweeper;
+import com.maven.restapi.security.LoginThrottle;
+import com.maven.restapi.security.RateLimiter;
+import com.maven.restapi.security.TokenExpiryTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SecurityMetrics implements MeterBinder {
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private TokenExpiryTracker tokenExpiryTracker;
+
+    @Autowired
+    private ExpiredTokenSweeper expiredTokenSweeper;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindRateLimiter(registry, "ip", rateLimitInterceptor.getIpLimiter());
+        bindRateLimiter(registry, "token", rateLimitInterceptor.getTokenLimiter());
+
+        FunctionCounter.builder("restapi.login.throttle.rejected", loginThrottle, LoginThrottle::getRejectedByUsername)
+                .description("Login attempts rejected before password verification")
+                .tag("key", "username")
+                .register(registry);
+        FunctionCounter.builder("restapi.login.throttle.rejected", loginThrottle, LoginThrottle::getRejectedBySource)
+                .description("Login attempts rejected before password verification")
+                .tag("key", "source")
+                .register(registry);
+        Gauge.builder("restapi.login.throttle.tracked", loginThrottle, LoginThrottle::getTrackedUsernames)
+                .tag("key", "username")
+                .register(registry);
+        Gauge.builder("restapi.login.throttle.tracked", loginThrottle, LoginThrottle::getTrackedSources)
+                .tag("key", "source")
+                .register(registry);
+
+        Gauge.builder("restapi.session.extensions.pending", tokenExpiryTracker, TokenExpiryTracker::getPending)
+                .description("Session expiry extensions waiting for the next flush")
+                .register(registry);
+        FunctionCounter.builder("restapi.session.extensions.flushed", tokenExpiryTracker, TokenExpiryTracker::getFlushed)
+                .description("Session expiry extensions written to the sessions table")
+                .register(registry);
+        FunctionCounter.builder("restapi.session.tokens.swept", expiredTokenSweeper, ExpiredTokenSweeper::getSwept)
+                .description("Expired tokens cleared by the sweeper")
+                .register(registry);
+    }
+
+    private void bindRateLimiter(MeterRegistry registry, String key, RateLimiter limiter) {
+        FunctionCounter.builder("restapi.rate.limit.rejected", limiter, RateLimiter::getRejected)
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("key", key)
+                .register(registry);
+        Gauge.builder("restapi.rate.limit.tracked", limiter, RateLimiter::size)
+                .tag("key", key)
+                .register(registry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.maven.restapi.monitoring;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("com.maven.restapi.TokenResolution")
+@Label("Token Resolution")
+@Description("Resolution of the X-API-TOKEN header to a user")
+@Category({"Restapi", "Auth"})
+@StackTrace(false)
+@Setter
+public class TokenResolutionEvent extends Event {
+
+    @Label("Outcome")
+    @Description("resolved, missing, unknown, expired or rate-limited")
+    private String outcome;
+}
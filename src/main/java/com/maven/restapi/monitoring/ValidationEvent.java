@@ -0,0 +1,26 @@
+package com.maven.restapi.monitoring;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("com.maven.restapi.Validation")
+@Label("Request Validation")
+@Category({"Restapi", "Validation"})
+@StackTrace(false)
+@Setter
+public class ValidationEvent extends Event {
+
+    @Label("Type")
+    private Class<?> type;
+
+    @Label("Cache Hit")
+    @Description("The compiled constraint checks for the type were already cached")
+    private boolean cacheHit;
+
+    @Label("Fast Path")
+    @Description("The request was accepted by the compiled checks without running the full validator")
+    private boolean fastPath;
+
+    @Label("Violations")
+    private int violations;
+}
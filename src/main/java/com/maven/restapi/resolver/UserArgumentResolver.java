@@ -1,23 +1,39 @@
 package com.maven.restapi.resolver;
 
+import com.maven.restapi.exception.TooManyRequestsException;
+import com.maven.restapi.exception.UnauthorizedException;
+import com.maven.restapi.interceptor.RateLimitInterceptor;
 import com.maven.restapi.models.entity.User;
-import com.maven.restapi.models.repository.UserRepository;
+import com.maven.restapi.models.entity.UserSession;
+import com.maven.restapi.models.repository.UserSessionRepository;
+import com.maven.restapi.monitoring.TokenResolutionEvent;
+import com.maven.restapi.security.TokenExpiryTracker;
+import com.maven.restapi.security.TokenHasher;
 import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.EventType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
-import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Objects;
 
 @Component
 public class UserArgumentResolver implements HandlerMethodArgumentResolver {
 
+    private static final EventType TOKEN_RESOLUTION_EVENT = EventType.getEventType(TokenResolutionEvent.class);
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private TokenExpiryTracker tokenExpiryTracker;
+
     @Autowired
-    private UserRepository userRepository;
+    private RateLimitInterceptor rateLimitInterceptor;
 
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
@@ -26,20 +42,48 @@ public class UserArgumentResolver implements HandlerMethodArgumentResolver {
 
     @Override
     public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
-         HttpServletRequest servletRequest = (HttpServletRequest) webRequest.getNativeRequest();
-         String token = servletRequest.getHeader("X-API-TOKEN");
+        TokenResolutionEvent event = TOKEN_RESOLUTION_EVENT.isEnabled() ? new TokenResolutionEvent() : null;
+        if (Objects.nonNull(event)) {
+            event.begin();
+        }
+        String outcome = null;
+        try {
+            HttpServletRequest servletRequest = (HttpServletRequest) webRequest.getNativeRequest();
+            String token = servletRequest.getHeader("X-API-TOKEN");
 
-         if (token == null) {
-             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
-         }
+            if (token == null) {
+                outcome = "missing";
+                throw UnauthorizedException.UNAUTHORIZED;
+            }
 
-        User user = userRepository.findFirstByToken(token)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+            byte[] tokenHash = TokenHasher.hash(token);
+            UserSession session = userSessionRepository.findFirstByTokenHash(tokenHash).orElse(null);
+            if (session == null) {
+                outcome = "unknown";
+                throw UnauthorizedException.UNAUTHORIZED;
+            }
 
-        if(user.getTokenExpiredAt() < System.currentTimeMillis()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
-        }
+            long expiresAt = tokenExpiryTracker.expiresAt(tokenHash, session.getExpiresAt());
+            if(expiresAt < System.currentTimeMillis()) {
+                outcome = "expired";
+                throw UnauthorizedException.UNAUTHORIZED;
+            }
 
-        return user;
+            try {
+                rateLimitInterceptor.checkUser(session.getUser().getUsername());
+            } catch (TooManyRequestsException e) {
+                outcome = "rate-limited";
+                throw e;
+            }
+            tokenExpiryTracker.touch(tokenHash, expiresAt);
+
+            outcome = "resolved";
+            return session.getUser();
+        } finally {
+            if (Objects.nonNull(event) && event.shouldCommit()) {
+                event.setOutcome(outcome);
+                event.commit();
+            }
+        }
     }
 }
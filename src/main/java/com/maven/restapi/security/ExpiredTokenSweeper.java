@@ -0,0 +1,70 @@
+package com.maven.restapi.security;
+
+import com.maven.restapi.models.repository.BatchedDelete;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes sessions that expired more than the grace period ago, so they stop taking space in the token index.
+ * <p>
+ * Runs on the batch job scheduler. Rows are removed by a {@link BatchedDelete} that walks the expiry index in order.
+ * Pending expiry extensions are flushed first, so a session that was used since its stored expiry is kept.
+ */
+@Slf4j
+@Component
+public class ExpiredTokenSweeper {
+
+    private static final String SELECT_SESSIONS = "SELECT token_hash FROM sessions WHERE expires_at < ? "
+            + "ORDER BY expires_at LIMIT ?";
+
+    private static final String SWEEP_SESSIONS = "DELETE FROM sessions WHERE expires_at < ? AND token_hash IN";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenExpiryTracker tokenExpiryTracker;
+
+    private final LongAdder swept = new LongAdder();
+
+    private final BatchedDelete batchedDelete;
+
+    private final long graceMillis;
+
+    public ExpiredTokenSweeper(@Value("${restapi.token-sweeper.batch-size:1000}") int batchSize,
+                               @Value("${restapi.token-sweeper.max-batches:100}") int maxBatches,
+                               @Value("${restapi.token-sweeper.pause:100ms}") Duration pause,
+                               @Value("${restapi.token-sweeper.grace:5m}") Duration grace) {
+        this.batchedDelete = new BatchedDelete(batchSize, maxBatches, pause);
+        this.graceMillis = grace.toMillis();
+    }
+
+    /**
+     * @return the number of sessions deleted by this run.
+     */
+    @Scheduled(initialDelayString = "${restapi.token-sweeper.interval:PT10M}",
+            fixedDelayString = "${restapi.token-sweeper.interval:PT10M}", scheduler = "batchJobScheduler")
+    public int sweep() {
+        tokenExpiryTracker.flush();
+
+        long expiredBefore = System.currentTimeMillis() - graceMillis;
+        int total = batchedDelete.execute(jdbcTemplate, SELECT_SESSIONS, SWEEP_SESSIONS, expiredBefore);
+        swept.add(total);
+
+        if (total > 0) {
+            log.info("Deleted {} expired sessions", total);
+        }
+        return total;
+    }
+
+    public long getSwept() {
+        return swept.sum();
+    }
+}
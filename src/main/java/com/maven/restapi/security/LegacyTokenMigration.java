@@ -0,0 +1,100 @@
+package com.maven.restapi.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Moves tokens still stored in plaintext on {@code users.token} into hashed sessions, so clients that logged in
+ * before the upgrade keep working without logging in again. Expired tokens are cleared without creating a session.
+ * <p>
+ * Runs once every singleton exists, before the web server accepts requests, in transactions of one batch of users
+ * each. It does nothing once the {@code token} column has been dropped, see {@code database.sql}.
+ */
+@Slf4j
+@Component
+public class LegacyTokenMigration implements SmartInitializingSingleton {
+
+    private static final String SELECT_TOKENS = "SELECT username, token, token_expired_at FROM users "
+            + "WHERE token IS NOT NULL LIMIT ?";
+
+    private static final String INSERT_SESSION = "INSERT INTO sessions (token_hash, username, created_at, expires_at) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private static final String CLEAR_TOKEN = "UPDATE users SET token = NULL, token_expired_at = NULL "
+            + "WHERE username = ? AND token = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${restapi.token-migration.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!hasLegacyTokenColumn()) {
+            return;
+        }
+
+        int migrated = migrate();
+        if (migrated > 0) {
+            log.info("Moved {} plaintext tokens to hashed sessions, users.token can now be dropped", migrated);
+        }
+    }
+
+    /**
+     * @return the number of sessions created.
+     */
+    public int migrate() {
+        int total = 0;
+        int selected;
+        do {
+            List<LegacyToken> tokens = jdbcTemplate.query(SELECT_TOKENS, (rs, rowNum) -> new LegacyToken(
+                    rs.getString("username"), rs.getString("token"), rs.getLong("token_expired_at")), batchSize);
+            selected = tokens.size();
+            total += transactionTemplate.execute(status -> migrate(tokens));
+        } while (selected == batchSize);
+        return total;
+    }
+
+    private int migrate(List<LegacyToken> tokens) {
+        long now = System.currentTimeMillis();
+        int created = 0;
+        for (LegacyToken token : tokens) {
+            if (token.expiredAt() >= now) {
+                try {
+                    jdbcTemplate.update(INSERT_SESSION, TokenHasher.hash(token.token()), token.username(), now,
+                            token.expiredAt());
+                    created++;
+                } catch (DuplicateKeyException e) {
+                    // Another instance migrated this token while starting up at the same time.
+                }
+            }
+            jdbcTemplate.update(CLEAR_TOKEN, token.username(), token.token());
+        }
+        return created;
+    }
+
+    private boolean hasLegacyTokenColumn() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, "users", "token")) {
+                return columns.next();
+            }
+        }));
+    }
+
+    private record LegacyToken(String username, String token, long expiredAt) {
+    }
+}
@@ -0,0 +1,229 @@
+package com.maven.restapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maven.restapi.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Throttles failed logins per username and per source address so that repeated guesses are rejected before
+ * the user is loaded and BCrypt runs.
+ * <p>
+ * Every attempt is counted as a failure when it is let through by {@link #acquire}, in the same atomic update
+ * that checks the block, and refunded if the password turns out to be right. Concurrent attempts therefore
+ * cannot all pass the check before one of them is recorded: at most {@code max-failures} verifications run
+ * before the key is blocked. Failures are counted over a sliding window (the previous window's count, weighted
+ * by how much of it still overlaps, plus the current one), and every failure beyond the allowed number doubles
+ * the block time, up to the maximum.
+ * <p>
+ * Only keys with recent failures are stored. A key expires once both its window and its block have passed, and
+ * each tracker is capped at {@code maxKeys}: when it is full, Caffeine evicts the keys least likely to be used
+ * again, so new keys are always admitted and no attempt pays for a scan of the map. Evicting a blocked username
+ * takes a spray of {@code maxKeys} failed logins, which the per-source limit caps for any single source.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Tracker usernames;
+
+    private final Tracker sources;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginThrottle(@Value("${restapi.login-throttle.username.max-failures:5}") int usernameMaxFailures,
+                         @Value("${restapi.login-throttle.source.max-failures:50}") int sourceMaxFailures,
+                         @Value("${restapi.login-throttle.window:15m}") Duration window,
+                         @Value("${restapi.login-throttle.base-backoff:1s}") Duration baseBackoff,
+                         @Value("${restapi.login-throttle.max-backoff:15m}") Duration maxBackoff,
+                         @Value("${restapi.login-throttle.max-keys:100000}") int maxKeys) {
+        this(usernameMaxFailures, sourceMaxFailures, window, baseBackoff, maxBackoff, maxKeys, System::nanoTime);
+    }
+
+    LoginThrottle(int usernameMaxFailures, int sourceMaxFailures, Duration window, Duration baseBackoff,
+                  Duration maxBackoff, int maxKeys, LongSupplier clock) {
+        this.clock = clock;
+        this.usernames = new Tracker(usernameMaxFailures, window.toNanos(), baseBackoff.toNanos(), maxBackoff.toNanos(),
+                maxKeys, clock);
+        this.sources = new Tracker(sourceMaxFailures, window.toNanos(), baseBackoff.toNanos(), maxBackoff.toNanos(),
+                maxKeys, clock);
+    }
+
+    /**
+     * Reserves one attempt for the username and the source, counted as a failure until {@link #recordSuccess}.
+     */
+    public Attempt acquire(String username, String source) {
+        long now = clock.getAsLong();
+        String usernameKey = key(username);
+
+        Charge usernameCharge = usernames.charge(usernameKey, now);
+        if (usernameCharge.waitNanos() > 0) {
+            throw tooManyAttempts(usernameCharge.waitNanos());
+        }
+
+        Charge sourceCharge = sources.charge(source, now);
+        if (sourceCharge.waitNanos() > 0) {
+            usernames.refund(usernameKey, usernameCharge);
+            throw tooManyAttempts(sourceCharge.waitNanos());
+        }
+
+        return new Attempt(usernameKey, source, sourceCharge);
+    }
+
+    // The source only gets this attempt back, otherwise one valid account would let an attacker reset its address.
+    public void recordSuccess(Attempt attempt) {
+        usernames.reset(attempt.username());
+        sources.refund(attempt.source(), attempt.sourceCharge());
+    }
+
+    public long getRejectedByUsername() {
+        return usernames.rejected.sum();
+    }
+
+    public long getRejectedBySource() {
+        return sources.rejected.sum();
+    }
+
+    public long getTrackedUsernames() {
+        return usernames.attempts.estimatedSize();
+    }
+
+    public long getTrackedSources() {
+        return sources.attempts.estimatedSize();
+    }
+
+    private static TooManyRequestsException tooManyAttempts(long waitNanos) {
+        return new TooManyRequestsException("Too many login attempts",
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+    }
+
+    // Usernames compare case-insensitively in MySQL, so the throttle must too.
+    private static String key(String username) {
+        return Objects.isNull(username) ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    public record Attempt(String username, String source, Charge sourceCharge) {
+    }
+
+    /**
+     * The state of a key before and after an attempt was counted, or the time to wait when it was refused.
+     */
+    private record Charge(long waitNanos, Attempts before, Attempts after) {
+    }
+
+    private record Attempts(long windowStart, int previous, int current, long blockedUntil) {
+    }
+
+    private static class Tracker {
+
+        private final Cache<String, Attempts> attempts;
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final int maxFailures;
+
+        private final long window;
+
+        private final long baseBackoff;
+
+        private final long maxBackoff;
+
+        Tracker(int maxFailures, long window, long baseBackoff, long maxBackoff, int maxKeys, LongSupplier clock) {
+            this.maxFailures = maxFailures;
+            this.window = window;
+            this.baseBackoff = baseBackoff;
+            this.maxBackoff = maxBackoff;
+            // Written on every attempt, after which the window is stale in 2 * window and the block over in maxBackoff.
+            this.attempts = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterWrite(Duration.ofNanos(Math.max(2 * window, maxBackoff)))
+                    .ticker(clock::getAsLong)
+                    .executor(Runnable::run)
+                    .build();
+        }
+
+        Charge charge(String key, long now) {
+            if (Objects.isNull(key)) {
+                return new Charge(0, null, null);
+            }
+
+            Charge[] charge = new Charge[1];
+            attempts.asMap().compute(key, (ignored, before) -> {
+                if (Objects.nonNull(before) && before.blockedUntil() - now > 0) {
+                    charge[0] = new Charge(before.blockedUntil() - now, null, null);
+                    return before;
+                }
+
+                Attempts after = next(before, now);
+                charge[0] = new Charge(0, before, after);
+                return after;
+            });
+
+            if (charge[0].waitNanos() > 0) {
+                rejected.increment();
+            }
+            return charge[0];
+        }
+
+        // Undoes the charge if nothing was counted since, otherwise only takes back its failure.
+        void refund(String key, Charge charge) {
+            if (Objects.isNull(key) || Objects.isNull(charge.after())) {
+                return;
+            }
+
+            attempts.asMap().computeIfPresent(key, (ignored, current) -> {
+                if (current == charge.after()) {
+                    return charge.before();
+                }
+                return current.current() > 0
+                        ? new Attempts(current.windowStart(), current.previous(), current.current() - 1, current.blockedUntil())
+                        : new Attempts(current.windowStart(), Math.max(0, current.previous() - 1), 0, current.blockedUntil());
+            });
+        }
+
+        void reset(String key) {
+            if (Objects.nonNull(key)) {
+                attempts.invalidate(key);
+            }
+        }
+
+        private Attempts next(Attempts attempts, long now) {
+            long windowStart = now;
+            int previous = 0;
+            int current = 0;
+            long blockedUntil = now;
+
+            if (Objects.nonNull(attempts)) {
+                long elapsed = now - attempts.windowStart();
+                blockedUntil = attempts.blockedUntil();
+                if (elapsed < window) {
+                    windowStart = attempts.windowStart();
+                    previous = attempts.previous();
+                    current = attempts.current();
+                } else if (elapsed < 2 * window) {
+                    windowStart = attempts.windowStart() + window;
+                    previous = attempts.current();
+                }
+            }
+            current++;
+
+            double overlap = (double) (window - (now - windowStart)) / window;
+            int failures = (int) (previous * overlap) + current;
+            if (failures >= maxFailures) {
+                int doublings = Math.min(failures - maxFailures, 30);
+                blockedUntil = now + Math.min(maxBackoff, baseBackoff << doublings);
+            }
+
+            return new Attempts(windowStart, previous, current, blockedUntil);
+        }
+    }
+}
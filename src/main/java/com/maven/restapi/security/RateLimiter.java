@@ -0,0 +1,76 @@
+package com.maven.restapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token bucket limiter, implemented as GCRA: each key holds only its theoretical arrival time in an
+ * {@link AtomicLong}, so taking a permit is a single CAS and never blocks.
+ * <p>
+ * A bucket that has not been used for {@code burst} intervals has refilled completely, so it expires then, which
+ * is equivalent to forgetting it. Beyond that the buckets are capped at {@code maxKeys}: when full, the keys
+ * least likely to be used again are evicted, so a new key is always admitted rather than rejected.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+
+    private final long capacityNanos;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongSupplier clock;
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier clock) {
+        this.clock = clock;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(capacityNanos))
+                .ticker(clock::getAsLong)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * @return 0 when a permit was taken, otherwise the nanoseconds to wait before the next one is available.
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key, ignored -> new AtomicLong(now));
+
+        while (true) {
+            long arrival = bucket.get();
+            long nextArrival = Math.max(arrival, now) + intervalNanos;
+            long wait = nextArrival - now - capacityNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,131 @@
+package com.maven.restapi.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding session expiry. Every authenticated request pushes the expiry of its session to now plus the ttl, but the
+ * new value is only kept in memory and written to {@code sessions} by {@link #flush()} in batched UPDATEs, so an
+ * active client costs one write per flush interval instead of one per request.
+ * <p>
+ * An extension is only recorded once it moves the expiry by at least the refresh granularity, which keeps the
+ * pending map small. The UPDATE is conditioned on the stored expiry being older, so a longer extension written by
+ * another instance is never overwritten, and a deleted session is not recreated. Idle sessions are never touched
+ * and expire at their stored time.
+ */
+@Slf4j
+@Component
+public class TokenExpiryTracker {
+
+    private static final String EXTEND = "UPDATE sessions SET expires_at = ? WHERE token_hash = ? AND expires_at < ?";
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<ByteBuffer, Long> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private final long ttlMillis;
+
+    private final long granularityMillis;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public TokenExpiryTracker(@Value("${restapi.session.ttl:30d}") Duration ttl,
+                              @Value("${restapi.session.refresh-granularity:1h}") Duration granularity) {
+        this(ttl, granularity, System::currentTimeMillis);
+    }
+
+    TokenExpiryTracker(Duration ttl, Duration granularity, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.granularityMillis = granularity.toMillis();
+        this.clock = clock;
+    }
+
+    public long newExpiry() {
+        return clock.getAsLong() + ttlMillis;
+    }
+
+    /**
+     * @return the stored expiry, or the extension waiting to be flushed when that is later.
+     */
+    public long expiresAt(byte[] tokenHash, long storedExpiry) {
+        Long extended = pending.get(ByteBuffer.wrap(tokenHash));
+        return Objects.isNull(extended) ? storedExpiry : Math.max(extended, storedExpiry);
+    }
+
+    public void touch(byte[] tokenHash, long expiresAt) {
+        long extended = newExpiry();
+        if (extended - expiresAt >= granularityMillis) {
+            pending.merge(ByteBuffer.wrap(tokenHash), extended, Math::max);
+        }
+    }
+
+    public void forget(byte[] tokenHash) {
+        pending.remove(ByteBuffer.wrap(tokenHash));
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${restapi.session.flush-interval:PT30S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Entries leave the map only after their UPDATE, so a request racing the flush still sees the extension.
+        List<Map.Entry<ByteBuffer, Long>> entries = new ArrayList<>(pending.size());
+        for (Map.Entry<ByteBuffer, Long> entry : pending.entrySet()) {
+            entries.add(Map.entry(entry.getKey(), entry.getValue()));
+        }
+
+        for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+            List<Map.Entry<ByteBuffer, Long>> batch = entries.subList(from, Math.min(entries.size(), from + BATCH_SIZE));
+            List<Object[]> arguments = new ArrayList<>(batch.size());
+            for (Map.Entry<ByteBuffer, Long> entry : batch) {
+                arguments.add(new Object[]{entry.getValue(), entry.getKey().array(), entry.getValue()});
+            }
+
+            try {
+                for (int updated : jdbcTemplate.batchUpdate(EXTEND, arguments)) {
+                    if (updated > 0) {
+                        flushed.add(updated);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not flush {} token expiry extensions, retrying on the next flush", batch.size(), e);
+                return;
+            }
+
+            for (Map.Entry<ByteBuffer, Long> entry : batch) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public long getFlushed() {
+        return flushed.sum();
+    }
+}
@@ -0,0 +1,22 @@
+package com.maven.restapi.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Tokens are random UUIDs, so an unsalted SHA-256 digest is enough to keep them out of the database.
+ */
+public final class TokenHasher {
+
+    private TokenHasher() {
+    }
+
+    public static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
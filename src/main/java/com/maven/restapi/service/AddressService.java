@@ -1,39 +1,60 @@
 package com.maven.restapi.service;
 
 import com.maven.restapi.dto.*;
+import com.maven.restapi.exception.NotFoundException;
+import com.maven.restapi.exception.PreconditionFailedException;
 import com.maven.restapi.models.entity.Address;
 import com.maven.restapi.models.entity.Contact;
 import com.maven.restapi.models.entity.User;
 import com.maven.restapi.models.repository.AddressRepository;
 import com.maven.restapi.models.repository.ContactRepository;
+import com.maven.restapi.models.repository.ProjectionRepository;
+import jakarta.persistence.Tuple;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class AddressService {
 
+    private static final NotFoundException CONTACT_NOT_FOUND = new NotFoundException("Contact is not found.");
+
+    private static final NotFoundException ADDRESS_NOT_FOUND = new NotFoundException("Address is not found.");
+
+    private static final PreconditionFailedException ADDRESS_MODIFIED = new PreconditionFailedException("Address was modified.");
+
+    private static final Set<String> FIELDS = Set.of("id", "street", "city", "province", "country", "postalCode");
+
     @Autowired
     private ContactRepository contactRepository;
 
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private SerializedResponseCache responseCache;
+
+    private final SingleFlight<AddressesKey, List<AddressResponse>> lists = new SingleFlight<>();
+
     public AddressResponse create(User user, CreateAddressRequest request) {
         validationService.validate(request);
 
         Contact contact = contactRepository.findFirstByUserAndId(user, request.getContactId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact is not found."));
+                .orElseThrow(() -> CONTACT_NOT_FOUND);
 
         Address address = new Address();
         address.setId(UUID.randomUUID().toString());
@@ -49,25 +70,36 @@ public class AddressService {
         return toResponseAddress(address);
     }
 
-    @Transactional
     public AddressResponse get(User user, String contactId, String id) {
-        Contact contact = contactRepository.findFirstByUserAndId(user, contactId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact is not found."));
+        return get(user, contactId, id, null);
+    }
 
-        Address address = addressRepository.findFirstByContactAndId(contact, id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Address is not found."));
+    public AddressResponse get(User user, String contactId, String id, String fields) {
+        Set<String> selected = FieldSelection.parse(fields, FIELDS);
 
-        return toResponseAddress(address);
+        if (Objects.nonNull(selected)) {
+            Specification<Address> specification = (root, query, builder) -> builder.and(
+                    builder.equal(root.get("contact").get("user"), user),
+                    builder.equal(root.get("contact").get("id"), contactId),
+                    builder.equal(root.get("id"), id)
+            );
+            Tuple tuple = projectionRepository.findFirst(Address.class, specification, selected)
+                    .orElseThrow(() -> notFound(user, contactId));
+
+            return toResponseAddress(tuple, selected);
+        }
+
+        return toResponseAddress(findAddress(user, contactId, id));
     }
 
     @Transactional
     public AddressResponse update(User user, UpdateAddressRequest request) {
         validationService.validate(request);
-        Contact contact = contactRepository.findFirstByUserAndId(user, request.getContactId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact is not found."));
+        Address address = findAddress(user, request.getContactId(), request.getAddressId());
 
-        Address address = addressRepository.findFirstByContactAndId(contact, request.getAddressId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Address is not found."));
+        if (Objects.nonNull(request.getVersion()) && !request.getVersion().equals(address.getVersion())) {
+            throw ADDRESS_MODIFIED;
+        }
 
         if(Objects.nonNull(request.getStreet())) {
             address.setStreet(request.getStreet());
@@ -89,32 +121,65 @@ public class AddressService {
             address.setPostalCode(request.getPostalCode());
         }
 
-        addressRepository.save(address);
+        addressRepository.flush();
+        responseCache.invalidate(SerializedResponseCache.Key.address(user.getUsername(), request.getContactId(),
+                request.getAddressId()));
 
         return toResponseAddress(address);
     }
 
     @Transactional
     public void delete(User user, String contactId, String id) {
-        Contact contact = contactRepository.findFirstByUserAndId(user, contactId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact is not found."));
+        if (addressRepository.softDeleteByContactUserAndContactIdAndId(user, contactId, id, System.currentTimeMillis()) == 0) {
+            throw notFound(user, contactId);
+        }
+        responseCache.invalidate(SerializedResponseCache.Key.address(user.getUsername(), contactId, id));
+    }
 
-        Address address = addressRepository.findFirstByContactAndId(contact, id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Address is not found."));
+    public List<AddressResponse> list(User user, String contactId) {
+        return list(user, contactId, null);
+    }
 
-        addressRepository.deleteById(address.getId());
+    /**
+     * Identical concurrent lists share one lookup through {@link SingleFlight}.
+     */
+    public List<AddressResponse> list(User user, String contactId, String fields) {
+        Set<String> selected = FieldSelection.parse(fields, FIELDS);
+        return lists.execute(new AddressesKey(user.getUsername(), contactId, fields), () -> load(user, contactId, selected));
     }
 
-    @Transactional
-    public List<AddressResponse> list(User user, String contactId) {
+    private List<AddressResponse> load(User user, String contactId, Set<String> selected) {
         Contact contact = contactRepository.findFirstByUserAndId(user, contactId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact is not found."));
+                .orElseThrow(() -> CONTACT_NOT_FOUND);
+
+        if (Objects.nonNull(selected)) {
+            Specification<Address> specification = (root, query, builder) -> builder.equal(root.get("contact"), contact);
+
+            return projectionRepository.findAll(Address.class, specification, selected, Pageable.unpaged())
+                    .stream()
+                    .map(tuple -> toResponseAddress(tuple, selected))
+                    .toList();
+        }
 
         List<Address> addresses = addressRepository.findAllByContact(contact);
 
         return addresses.stream().map(this::toResponseAddress).toList();
     }
 
+    public SingleFlight<?, ?> getLists() {
+        return lists;
+    }
+
+    // One query checks both the contact ownership and the address; the miss is only told apart when it happens.
+    private Address findAddress(User user, String contactId, String id) {
+        return addressRepository.findFirstByContactUserAndContactIdAndId(user, contactId, id)
+                .orElseThrow(() -> notFound(user, contactId));
+    }
+
+    private NotFoundException notFound(User user, String contactId) {
+        return contactRepository.existsByUserAndId(user, contactId) ? ADDRESS_NOT_FOUND : CONTACT_NOT_FOUND;
+    }
+
     private AddressResponse toResponseAddress(Address address) {
         return AddressResponse.builder()
                 .id(address.getId())
@@ -123,7 +188,21 @@ public class AddressService {
                 .province(address.getProvince())
                 .country(address.getCountry())
                 .postalCode(address.getPostalCode())
+                .version(address.getVersion())
                 .build();
     }
 
+    private AddressResponse toResponseAddress(Tuple tuple, Set<String> selected) {
+        return AddressResponse.builder()
+                .id(FieldSelection.value(tuple, selected, "id"))
+                .street(FieldSelection.value(tuple, selected, "street"))
+                .city(FieldSelection.value(tuple, selected, "city"))
+                .province(FieldSelection.value(tuple, selected, "province"))
+                .country(FieldSelection.value(tuple, selected, "country"))
+                .postalCode(FieldSelection.value(tuple, selected, "postalCode"))
+                .build();
+    }
+
+    private record AddressesKey(String username, String contactId, String fields) {
+    }
 }
@@ -0,0 +1,213 @@
+package com.maven.restapi.service;
+
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.*;
+import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Field constraints of one request class, compiled from the Bean Validation metadata into plain predicates.
+ * <p>
+ * Only the simple built-in constraints used by the DTOs are compiled. A class that uses anything else
+ * (class-level or cascaded constraints, groups, getter constraints, other annotations) gets no checks and
+ * always goes through the full validator.
+ */
+final class ConstraintChecks {
+
+    static final ConstraintChecks FULL_VALIDATION = new ConstraintChecks(null);
+
+    // Besides letters and digits, the characters allowed in an unquoted and in a quoted local part word.
+    private static final String ATOM_SYMBOLS = "!#$%&'*+/=?^_`{|}~-";
+
+    private static final String QUOTED_SYMBOLS = "!#$%&'*.(),<>[]:; @+/=?^_`{|}~-";
+
+    private final Check[] checks;
+
+    private ConstraintChecks(Check[] checks) {
+        this.checks = checks;
+    }
+
+    /**
+     * @return true when every constraint holds; false means the full validator has to decide.
+     */
+    boolean passes(Object bean) {
+        if (Objects.isNull(checks)) {
+            return false;
+        }
+
+        for (Check check : checks) {
+            if (!check.rule().test(ReflectionUtils.getField(check.field(), bean))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static ConstraintChecks compile(Class<?> type, Validator validator) {
+        BeanDescriptor bean = validator.getConstraintsForClass(type);
+        if (!bean.getConstraintDescriptors().isEmpty()) {
+            return FULL_VALIDATION;
+        }
+
+        List<Check> checks = new ArrayList<>();
+        for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+            Set<ConstraintDescriptor<?>> constraints = property.getConstraintDescriptors();
+            Set<ConstraintDescriptor<?>> fieldConstraints = property.findConstraints()
+                    .declaredOn(ElementType.FIELD)
+                    .getConstraintDescriptors();
+            if (property.isCascaded() || !property.getConstrainedContainerElementTypes().isEmpty()
+                    || constraints.size() != fieldConstraints.size()) {
+                return FULL_VALIDATION;
+            }
+
+            Field field = ReflectionUtils.findField(type, property.getPropertyName());
+            if (Objects.isNull(field)) {
+                return FULL_VALIDATION;
+            }
+            ReflectionUtils.makeAccessible(field);
+
+            for (ConstraintDescriptor<?> constraint : constraints) {
+                Predicate<Object> rule = rule(constraint, field.getType());
+                if (Objects.isNull(rule)) {
+                    return FULL_VALIDATION;
+                }
+                checks.add(new Check(field, rule));
+            }
+        }
+
+        return new ConstraintChecks(checks.toArray(new Check[0]));
+    }
+
+    private static Predicate<Object> rule(ConstraintDescriptor<?> constraint, Class<?> type) {
+        if (!Set.of(Default.class).equals(constraint.getGroups()) || !constraint.getComposingConstraints().isEmpty()) {
+            return null;
+        }
+
+        Annotation annotation = constraint.getAnnotation();
+        if (annotation instanceof NotNull) {
+            return Objects::nonNull;
+        }
+        if (!CharSequence.class.isAssignableFrom(type)) {
+            return null;
+        }
+
+        if (annotation instanceof NotBlank) {
+            return value -> Objects.nonNull(value) && hasText((CharSequence) value);
+        }
+        if (annotation instanceof NotEmpty) {
+            return value -> Objects.nonNull(value) && ((CharSequence) value).length() > 0;
+        }
+        if (annotation instanceof Size size) {
+            int min = size.min();
+            int max = size.max();
+            return value -> Objects.isNull(value)
+                    || (((CharSequence) value).length() >= min && ((CharSequence) value).length() <= max);
+        }
+        if (annotation instanceof Email email && email.regexp().equals(".*")) {
+            return value -> Objects.isNull(value) || isEmail((CharSequence) value);
+        }
+
+        return null;
+    }
+
+    // Mirrors NotBlankValidator, which trims every character <= ' '.
+    private static boolean hasText(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A subset of what EmailValidator accepts: ASCII addresses with a domain name. Anything else, such as
+    // internationalized or IP literal domains, fails here and is left to the full validator. Both parts are
+    // scanned in place, so checking an address allocates nothing.
+    private static boolean isEmail(CharSequence value) {
+        int length = value.length();
+        if (length == 0) {
+            return true;
+        }
+
+        int at = length - 1;
+        while (at >= 0 && value.charAt(at) != '@') {
+            at--;
+        }
+        if (at < 0) {
+            return false;
+        }
+
+        return at <= 64 && length - at - 1 <= 255
+                && isLocalPart(value, 0, at) && isDomain(value, at + 1, length);
+    }
+
+    // Words, either unquoted atoms or quoted strings, separated by single dots.
+    private static boolean isLocalPart(CharSequence value, int start, int end) {
+        int i = start;
+        while (true) {
+            int wordStart = i;
+            if (i < end && value.charAt(i) == '"') {
+                i++;
+                while (i < end && isWordChar(value.charAt(i), QUOTED_SYMBOLS)) {
+                    i++;
+                }
+                if (i == wordStart + 1 || i == end || value.charAt(i) != '"') {
+                    return false;
+                }
+                i++;
+            } else {
+                while (i < end && isWordChar(value.charAt(i), ATOM_SYMBOLS)) {
+                    i++;
+                }
+                if (i == wordStart) {
+                    return false;
+                }
+            }
+
+            if (i == end) {
+                return true;
+            }
+            if (value.charAt(i) != '.') {
+                return false;
+            }
+            i++;
+        }
+    }
+
+    // Labels of 1 to 63 letters, digits and hyphens, not starting or ending with a hyphen, separated by dots.
+    private static boolean isDomain(CharSequence value, int start, int end) {
+        int labelStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || value.charAt(i) == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0 || labelLength > 63
+                        || value.charAt(labelStart) == '-' || value.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labelStart = i + 1;
+            } else if (!isWordChar(value.charAt(i), "-")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWordChar(char c, String symbols) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || symbols.indexOf(c) >= 0;
+    }
+
+    private record Check(Field field, Predicate<Object> rule) {
+    }
+}
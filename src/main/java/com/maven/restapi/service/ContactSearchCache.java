@@ -0,0 +1,105 @@
+package com.maven.restapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maven.restapi.dto.ContactResponse;
+import com.maven.restapi.dto.SearchContactRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches pages of contact search results, bounded by their approximate size in bytes.
+ * <p>
+ * Keys carry a generation per user. A write moves the user to a new generation once it commits, so every page
+ * cached for that user stops matching and ages out of the cache; a search that read the old rows while the write
+ * was running caches its page under the old generation too. Pages also expire after a while, which bounds how long
+ * another instance serves pages from before a write it did not see.
+ * <p>
+ * Generations are kept for a bounded number of users, for at least as long as a page lives. A user without one is
+ * given a new generation from the clock, which no cached page can match.
+ */
+@Component
+public class ContactSearchCache {
+
+    private static final int PAGE_OVERHEAD = 160;
+
+    private static final int CONTACT_OVERHEAD = 48;
+
+    private static final int STRING_OVERHEAD = 40;
+
+    private final Cache<SearchKey, Page<ContactResponse>> pages;
+
+    private final Cache<String, Long> generations;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    public ContactSearchCache(@Value("${restapi.contact-search-cache.max-weight:16MB}") DataSize maxWeight,
+                              @Value("${restapi.contact-search-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                              @Value("${restapi.contact-search-cache.max-users:100000}") long maxUsers) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher(ContactSearchCache::weigh)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // Dropping a generation early only costs misses; reading it on every search keeps it while the user is active.
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(expireAfterWrite)
+                .build();
+    }
+
+    public Page<ContactResponse> get(String username, SearchContactRequest request, Supplier<Page<ContactResponse>> loader) {
+        long generation = generations.get(username, ignored -> clock.incrementAndGet());
+        SearchKey key = new SearchKey(username, generation, request.getName(), request.getEmail(), request.getPhone(),
+                request.getPage(), request.getSize(), request.getFields());
+
+        // Not Cache.get(key, loader): that would hold a lock on the map while the search runs its queries.
+        Page<ContactResponse> page = pages.getIfPresent(key);
+        if (Objects.isNull(page)) {
+            page = loader.get();
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Drops the cached pages of the user once the current transaction commits, or right away outside one.
+     */
+    public void invalidate(String username) {
+        AfterCommit.run(() -> generations.put(username, clock.incrementAndGet()));
+    }
+
+    public void invalidateAll() {
+        pages.invalidateAll();
+    }
+
+    public Cache<?, ?> getCache() {
+        return pages;
+    }
+
+    private static int weigh(SearchKey key, Page<ContactResponse> page) {
+        int weight = PAGE_OVERHEAD + length(key.username()) + length(key.name()) + length(key.email())
+                + length(key.phone()) + length(key.fields());
+        for (ContactResponse contact : page) {
+            weight += CONTACT_OVERHEAD + length(contact.getId()) + length(contact.getFirstName())
+                    + length(contact.getLastName()) + length(contact.getEmail()) + length(contact.getPhone());
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return Objects.isNull(value) ? 0 : STRING_OVERHEAD + value.length();
+    }
+
+    private record SearchKey(String username, long generation, String name, String email, String phone,
+                             int page, int size, String fields) {
+    }
+}
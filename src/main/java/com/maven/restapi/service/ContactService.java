@@ -4,35 +4,66 @@ import com.maven.restapi.dto.ContactResponse;
 import com.maven.restapi.dto.CreateContactRequest;
 import com.maven.restapi.dto.SearchContactRequest;
 import com.maven.restapi.dto.UpdateContactRequest;
+import com.maven.restapi.exception.BadRequestException;
+import com.maven.restapi.exception.NotFoundException;
+import com.maven.restapi.exception.PreconditionFailedException;
 import com.maven.restapi.models.entity.Contact;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.repository.AddressRepository;
 import com.maven.restapi.models.repository.ContactRepository;
+import com.maven.restapi.models.repository.ProjectionRepository;
+import com.maven.restapi.monitoring.ContactSearchEvent;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
+import jdk.jfr.EventType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class ContactService {
 
+    private static final NotFoundException CONTACT_NOT_FOUND = new NotFoundException("Contact not found.");
+
+    private static final PreconditionFailedException CONTACT_MODIFIED = new PreconditionFailedException("Contact was modified.");
+
+    private static final int MAX_BULK_DELETE = 100;
+
+    private static final Set<String> FIELDS = Set.of("id", "firstName", "lastName", "email", "phone");
+
+    private static final EventType SEARCH_EVENT = EventType.getEventType(ContactSearchEvent.class);
+
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private ContactSearchCache searchCache;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
+    private final SingleFlight<ContactKey, ContactResponse> reads = new SingleFlight<>();
+
     @Transactional
     public ContactResponse create(User user, CreateContactRequest request) {
         validationService.validate(request);
@@ -46,14 +77,37 @@ public class ContactService {
         contact.setUser(user);
 
         contactRepository.save(contact);
+        searchCache.invalidate(user.getUsername());
 
         return toResponseContact(contact);
     }
 
-    @Transactional
     public ContactResponse get(User user, String Id) {
+        return get(user, Id, null);
+    }
+
+    /**
+     * Identical concurrent reads share one lookup through {@link SingleFlight}.
+     */
+    public ContactResponse get(User user, String Id, String fields) {
+        Set<String> selected = FieldSelection.parse(fields, FIELDS);
+        return reads.execute(new ContactKey(user.getUsername(), Id, fields), () -> load(user, Id, selected));
+    }
+
+    private ContactResponse load(User user, String Id, Set<String> selected) {
+        if (Objects.nonNull(selected)) {
+            Specification<Contact> specification = (root, query, builder) -> builder.and(
+                    builder.equal(root.get("user"), user),
+                    builder.equal(root.get("id"), Id)
+            );
+            Tuple tuple = projectionRepository.findFirst(Contact.class, specification, selected)
+                    .orElseThrow(() -> CONTACT_NOT_FOUND);
+
+            return toResponseContact(tuple, selected);
+        }
+
         Contact contact = contactRepository.findFirstByUserAndId(user, Id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found."));
+                .orElseThrow(() -> CONTACT_NOT_FOUND);
 
         return toResponseContact(contact);
     }
@@ -63,7 +117,11 @@ public class ContactService {
         validationService.validate(request);
 
         Contact contact = contactRepository.findFirstByUserAndId(user, request.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found."));
+                .orElseThrow(() -> CONTACT_NOT_FOUND);
+
+        if (Objects.nonNull(request.getVersion()) && !request.getVersion().equals(contact.getVersion())) {
+            throw CONTACT_MODIFIED;
+        }
 
         if(Objects.nonNull(request.getFirstName())) {
             contact.setFirstName(request.getFirstName());
@@ -81,23 +139,54 @@ public class ContactService {
             contact.setPhone(request.getPhone());
         }
 
-        contact.setUser(user);
-
-        contactRepository.save(contact);
+        // The contact is managed: flushing writes the changed columns and assigns the new version for the ETag.
+        contactRepository.flush();
+        searchCache.invalidate(user.getUsername());
+        responseCache.invalidate(SerializedResponseCache.Key.contact(user.getUsername(), contact.getId()));
 
         return toResponseContact(contact);
     }
 
     @Transactional
     public void delete(User user, String contactId) {
-        Contact contact = contactRepository.findFirstByUserAndId(user, contactId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found."));
-
-        contactRepository.delete(contact);
+        if (deleteAll(user, List.of(contactId)) == 0) {
+            throw CONTACT_NOT_FOUND;
+        }
     }
 
+    /**
+     * Marks the contacts of the user, with their addresses, as deleted using one UPDATE per table. Ids that are
+     * unknown or belong to another user are skipped. The rows are removed later by {@link SoftDeletePurger}.
+     *
+     * @return the number of contacts deleted.
+     */
     @Transactional
+    public int deleteAll(User user, List<String> contactIds) {
+        if (contactIds.isEmpty() || contactIds.size() > MAX_BULK_DELETE) {
+            throw new BadRequestException("Between 1 and " + MAX_BULK_DELETE + " contact ids are required.");
+        }
+
+        long deletedAt = System.currentTimeMillis();
+        addressRepository.softDeleteByContactUserAndContactIdIn(user, contactIds, deletedAt);
+        searchCache.invalidate(user.getUsername());
+        responseCache.invalidateContacts(user.getUsername(), contactIds);
+        return contactRepository.softDeleteByUserAndIdIn(user, contactIds, deletedAt);
+    }
+
+    /**
+     * Repeated searches are answered from {@link ContactSearchCache} until the user writes a contact.
+     */
     public Page<ContactResponse> search(User user, SearchContactRequest request) {
+        Set<String> selected = FieldSelection.parse(request.getFields(), FIELDS);
+        return searchCache.get(user.getUsername(), request, () -> search(user, request, selected));
+    }
+
+    private Page<ContactResponse> search(User user, SearchContactRequest request, Set<String> selected) {
+        ContactSearchEvent event = SEARCH_EVENT.isEnabled() ? new ContactSearchEvent() : null;
+        if (Objects.nonNull(event)) {
+            event.begin();
+        }
+
         Specification<Contact> specification = (root, query, builder) -> {
             List<Predicate> predicates = new ArrayList<>();
             predicates.add(builder.equal(root.get("user"), user));
@@ -122,12 +211,37 @@ public class ContactService {
         };
 
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
-        Page<Contact> contacts = contactRepository.findAll(specification, pageable);
-        List<ContactResponse> contactResponses = contacts.getContent().stream()
-                .map(this::toResponseContact)
-                .toList();
 
-        return new PageImpl<>(contactResponses, pageable, contacts.getTotalElements());
+        Page<ContactResponse> result;
+        if (Objects.nonNull(selected)) {
+            List<ContactResponse> contactResponses = projectionRepository.findAll(Contact.class, specification, selected, pageable)
+                    .stream()
+                    .map(tuple -> toResponseContact(tuple, selected))
+                    .toList();
+
+            result = new PageImpl<>(contactResponses, pageable, contactRepository.count(specification));
+        } else {
+            Page<Contact> contacts = contactRepository.findAll(specification, pageable);
+            List<ContactResponse> contactResponses = contacts.getContent().stream()
+                    .map(this::toResponseContact)
+                    .toList();
+
+            result = new PageImpl<>(contactResponses, pageable, contacts.getTotalElements());
+        }
+
+        if (Objects.nonNull(event) && event.shouldCommit()) {
+            event.setPage(request.getPage());
+            event.setSize(request.getSize());
+            event.setProjected(Objects.nonNull(selected));
+            event.setResultSize(result.getNumberOfElements());
+            event.setTotalElements(result.getTotalElements());
+            event.commit();
+        }
+        return result;
+    }
+
+    public SingleFlight<?, ?> getReads() {
+        return reads;
     }
 
     private ContactResponse toResponseContact(Contact contact) {
@@ -137,6 +251,20 @@ public class ContactService {
                 .lastName(contact.getLastName())
                 .email(contact.getEmail())
                 .phone(contact.getPhone())
+                .version(contact.getVersion())
                 .build();
     }
+
+    private ContactResponse toResponseContact(Tuple tuple, Set<String> selected) {
+        return ContactResponse.builder()
+                .id(FieldSelection.value(tuple, selected, "id"))
+                .firstName(FieldSelection.value(tuple, selected, "firstName"))
+                .lastName(FieldSelection.value(tuple, selected, "lastName"))
+                .email(FieldSelection.value(tuple, selected, "email"))
+                .phone(FieldSelection.value(tuple, selected, "phone"))
+                .build();
+    }
+
+    private record ContactKey(String username, String id, String fields) {
+    }
 }
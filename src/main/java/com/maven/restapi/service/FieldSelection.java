@@ -0,0 +1,45 @@
+package com.maven.restapi.service;
+
+import com.maven.restapi.exception.BadRequestException;
+import jakarta.persistence.Tuple;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parses the {@code fields=} query parameter of the read endpoints. The id is always selected.
+ */
+public final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    /**
+     * @return the selected attribute names, or null when every field was requested.
+     */
+    public static Set<String> parse(String fields, Set<String> allowed) {
+        if (Objects.isNull(fields) || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new BadRequestException("Unknown field " + name + ".");
+            }
+            selected.add(name);
+        }
+
+        return selected.size() == allowed.size() ? null : selected;
+    }
+
+    static String value(Tuple tuple, Set<String> selected, String field) {
+        return selected.contains(field) ? tuple.get(field, String.class) : null;
+    }
+}
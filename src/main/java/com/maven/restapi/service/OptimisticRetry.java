@@ -0,0 +1,56 @@
+package com.maven.restapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an update again when it lost an optimistic locking race, instead of taking row locks up front.
+ * <p>
+ * Every attempt must run in its own transaction, so call this outside of {@code @Transactional} code: the failed
+ * transaction is rolled back and the next attempt reads the current version again. Attempts are spaced by a
+ * randomized, growing backoff so that the competing writers do not collide again. When the attempts run out the
+ * last {@link OptimisticLockingFailureException} is thrown, which the API answers with 409 Conflict.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final int maxAttempts;
+
+    private final long backoffMillis;
+
+    public OptimisticRetry(@Value("${restapi.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${restapi.optimistic-retry.backoff:20ms}") Duration backoff) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Optimistic locking conflict, retrying (attempt {} of {})", attempt + 1, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        long millis = ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.maven.restapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps serialized contact and address responses outside the Java heap, so caching them does not grow the old
+ * generation.
+ * <p>
+ * The bytes live in one direct buffer allocated at startup and split into fixed-size blocks; an entry takes as many
+ * blocks as its length needs. Only the index, a few dozen bytes per entry, stays on the heap. The blocks are divided
+ * between stripes with their own lock and LRU order, and a contact and its addresses always share a stripe. When a
+ * stripe has no free blocks its least recently read entries are evicted. Entries larger than an eighth of a stripe
+ * are not cached.
+ * <p>
+ * Hits are handed out as read-only views of the blocks, outside the lock. The entry is pinned meanwhile, so blocks
+ * that are evicted or invalidated during the read are only reused once it finishes.
+ * <p>
+ * Writes invalidate entries once their transaction commits. A load that was running while an entry of its stripe was
+ * invalidated is not cached, because it may have read the rows before the write.
+ */
+@Component
+public class SerializedResponseCache {
+
+    private final ByteBuffer arena;
+
+    private final ByteBuffer readOnlyArena;
+
+    private final int blockSize;
+
+    private final int maxBlocksPerEntry;
+
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public SerializedResponseCache(@Value("${restapi.response-cache.capacity:32MB}") DataSize capacity,
+                                   @Value("${restapi.response-cache.block-size:256B}") DataSize blockSize,
+                                   @Value("${restapi.response-cache.stripes:16}") int stripes) {
+        if (blockSize.toBytes() <= 0 || stripes <= 0 || capacity.toBytes() < blockSize.toBytes() * stripes) {
+            throw new IllegalArgumentException("Response cache capacity " + capacity + " does not hold a block of "
+                    + blockSize + " per stripe for " + stripes + " stripes");
+        }
+
+        this.blockSize = Math.toIntExact(blockSize.toBytes());
+        int blocks = Math.toIntExact(capacity.toBytes() / this.blockSize);
+        int blocksPerStripe = blocks / stripes;
+        this.arena = ByteBuffer.allocateDirect(blocksPerStripe * stripes * this.blockSize);
+        this.readOnlyArena = arena.asReadOnlyBuffer();
+        this.maxBlocksPerEntry = Math.max(1, blocksPerStripe / 8);
+        this.stripes = new Stripe[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            this.stripes[stripe] = new Stripe(stripe * blocksPerStripe, blocksPerStripe);
+        }
+    }
+
+    /**
+     * Passes the cached response to the writer, or the one returned by the loader, which is cached for the next read.
+     */
+    public void get(Key key, Supplier<Serialized> loader, BodyWriter writer) throws IOException {
+        Stripe stripe = stripe(key);
+        long stamp;
+        Slot slot;
+        synchronized (stripe) {
+            slot = stripe.slots.get(key);
+            if (Objects.nonNull(slot)) {
+                slot.readers++;
+            }
+            stamp = stripe.invalidations;
+        }
+
+        if (Objects.nonNull(slot)) {
+            hits.increment();
+            try {
+                writer.write(slot.version, slot.length, read(slot));
+            } finally {
+                synchronized (stripe) {
+                    slot.readers--;
+                    stripe.freeIfRetired(slot);
+                }
+            }
+            return;
+        }
+
+        misses.increment();
+        Serialized loaded = loader.get();
+        stripe.put(key, loaded, stamp);
+        writer.write(loaded.version(), loaded.body().length, new ByteBuffer[]{ByteBuffer.wrap(loaded.body())});
+    }
+
+    public void invalidate(Key key) {
+        AfterCommit.run(() -> {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                stripe.invalidations++;
+                stripe.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Invalidates the contacts of the user together with their addresses.
+     */
+    public void invalidateContacts(String username, Collection<String> contactIds) {
+        AfterCommit.run(() -> {
+            for (String contactId : contactIds) {
+                Key contact = Key.contact(username, contactId);
+                Stripe stripe = stripe(contact);
+                synchronized (stripe) {
+                    stripe.invalidations++;
+                    Set<Key> keys = stripe.byContact.remove(contact);
+                    if (Objects.nonNull(keys)) {
+                        for (Key key : keys) {
+                            stripe.release(stripe.slots.remove(key));
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.invalidations++;
+                stripe.slots.values().forEach(stripe::release);
+                stripe.slots.clear();
+                stripe.byContact.clear();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getUsedBytes() {
+        long used = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                used += stripe.freeBlocks.length - stripe.freeCount;
+            }
+        }
+        return used * blockSize;
+    }
+
+    private Stripe stripe(Key key) {
+        int hash = 31 * key.username().hashCode() + key.contactId().hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private ByteBuffer[] read(Slot slot) {
+        ByteBuffer[] body = new ByteBuffer[slot.blocks.length];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = readOnlyArena.slice(slot.blocks[i] * blockSize, Math.min(blockSize, slot.length - i * blockSize));
+        }
+        return body;
+    }
+
+    private final class Stripe {
+
+        private final int[] freeBlocks;
+
+        private int freeCount;
+
+        private final LinkedHashMap<Key, Slot> slots = new LinkedHashMap<>(64, 0.75f, true);
+
+        private final Map<Key, Set<Key>> byContact = new HashMap<>();
+
+        private long invalidations;
+
+        private Stripe(int firstBlock, int blocks) {
+            this.freeBlocks = new int[blocks];
+            for (int block = 0; block < blocks; block++) {
+                freeBlocks[block] = firstBlock + blocks - 1 - block;
+            }
+            this.freeCount = blocks;
+        }
+
+        private synchronized void put(Key key, Serialized serialized, long stamp) {
+            int blocks = (serialized.body().length + blockSize - 1) / blockSize;
+            if (stamp != invalidations || blocks > maxBlocksPerEntry) {
+                return;
+            }
+
+            remove(key);
+            Iterator<Map.Entry<Key, Slot>> eldest = slots.entrySet().iterator();
+            while (freeCount < blocks && eldest.hasNext()) {
+                Map.Entry<Key, Slot> entry = eldest.next();
+                eldest.remove();
+                unindex(entry.getKey());
+                release(entry.getValue());
+                evictions.increment();
+            }
+            if (freeCount < blocks) {
+                // The rest of the stripe is pinned by reads in progress.
+                return;
+            }
+
+            int[] allocated = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                allocated[i] = freeBlocks[--freeCount];
+                int offset = i * blockSize;
+                arena.put(allocated[i] * blockSize, serialized.body(), offset,
+                        Math.min(blockSize, serialized.body().length - offset));
+            }
+            slots.put(key, new Slot(allocated, serialized.body().length, serialized.version()));
+            byContact.computeIfAbsent(key.owner(), owner -> new HashSet<>()).add(key);
+        }
+
+        private void remove(Key key) {
+            Slot slot = slots.remove(key);
+            if (Objects.nonNull(slot)) {
+                unindex(key);
+                release(slot);
+            }
+        }
+
+        private void unindex(Key key) {
+            Set<Key> keys = byContact.get(key.owner());
+            if (Objects.nonNull(keys) && keys.remove(key) && keys.isEmpty()) {
+                byContact.remove(key.owner());
+            }
+        }
+
+        private void release(Slot slot) {
+            if (Objects.isNull(slot)) {
+                return;
+            }
+            slot.retired = true;
+            freeIfRetired(slot);
+        }
+
+        private void freeIfRetired(Slot slot) {
+            if (!slot.retired || slot.readers > 0) {
+                return;
+            }
+            for (int block : slot.blocks) {
+                freeBlocks[freeCount++] = block;
+            }
+        }
+    }
+
+    /**
+     * Receives a response from the cache. The buffers are only valid until the call returns.
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        void write(Long version, int length, ByteBuffer[] body) throws IOException;
+    }
+
+    /**
+     * A contact when {@code addressId} is null, otherwise one of its addresses.
+     */
+    public record Key(String username, String contactId, String addressId) {
+
+        public static Key contact(String username, String contactId) {
+            return new Key(username, contactId, null);
+        }
+
+        public static Key address(String username, String contactId, String addressId) {
+            return new Key(username, contactId, addressId);
+        }
+
+        private Key owner() {
+            return Objects.isNull(addressId) ? this : contact(username, contactId);
+        }
+    }
+
+    public record Serialized(byte[] body, Long version) {
+    }
+
+    private static final class Slot {
+
+        private final int[] blocks;
+
+        private final int length;
+
+        private final Long version;
+
+        private int readers;
+
+        private boolean retired;
+
+        private Slot(int[] blocks, int length, Long version) {
+            this.blocks = blocks;
+            this.length = length;
+            this.version = version;
+        }
+    }
+}
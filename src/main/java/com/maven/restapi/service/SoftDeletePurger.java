@@ -0,0 +1,65 @@
+package com.maven.restapi.service;
+
+import com.maven.restapi.models.repository.BatchedDelete;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Physically removes contacts and addresses that were soft deleted more than the grace period ago.
+ * <p>
+ * Runs on the {@code restapi.purge.cron} schedule, which defaults to an off-peak window, on the batch job scheduler.
+ * Rows are removed by a {@link BatchedDelete} that walks the {@code deleted_at} indexes in order. Addresses go first;
+ * a contact is only removed once none of its addresses are left.
+ */
+@Slf4j
+@Component
+public class SoftDeletePurger {
+
+    private static final String SELECT_ADDRESSES = "SELECT id FROM addresses WHERE deleted_at < ? "
+            + "ORDER BY deleted_at LIMIT ?";
+
+    private static final String PURGE_ADDRESSES = "DELETE FROM addresses WHERE deleted_at < ? AND id IN";
+
+    private static final String SELECT_CONTACTS = "SELECT id FROM contacts WHERE deleted_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM addresses a WHERE a.contact_id = contacts.id) "
+            + "ORDER BY deleted_at LIMIT ?";
+
+    private static final String PURGE_CONTACTS = "DELETE FROM contacts WHERE deleted_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM addresses a WHERE a.contact_id = contacts.id) AND id IN";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final BatchedDelete batchedDelete;
+
+    private final long graceMillis;
+
+    public SoftDeletePurger(@Value("${restapi.purge.batch-size:500}") int batchSize,
+                            @Value("${restapi.purge.max-batches:200}") int maxBatches,
+                            @Value("${restapi.purge.pause:200ms}") Duration pause,
+                            @Value("${restapi.purge.grace:1h}") Duration grace) {
+        this.batchedDelete = new BatchedDelete(batchSize, maxBatches, pause);
+        this.graceMillis = grace.toMillis();
+    }
+
+    /**
+     * @return the number of rows removed by this run.
+     */
+    @Scheduled(cron = "${restapi.purge.cron:0 */10 1-4 * * *}", scheduler = "batchJobScheduler")
+    public int purge() {
+        long deletedBefore = System.currentTimeMillis() - graceMillis;
+        int addresses = batchedDelete.execute(jdbcTemplate, SELECT_ADDRESSES, PURGE_ADDRESSES, deletedBefore);
+        int contacts = batchedDelete.execute(jdbcTemplate, SELECT_CONTACTS, PURGE_CONTACTS, deletedBefore);
+
+        if (addresses + contacts > 0) {
+            log.info("Purged {} deleted contacts and {} deleted addresses", contacts, addresses);
+        }
+        return addresses + contacts;
+    }
+}
@@ -3,14 +3,14 @@ package com.maven.restapi.service;
 import com.maven.restapi.dto.RegisterUserRequest;
 import com.maven.restapi.dto.UpdateUserRequest;
 import com.maven.restapi.dto.UserResponse;
+import com.maven.restapi.exception.BadRequestException;
 import com.maven.restapi.models.entity.User;
 import com.maven.restapi.models.repository.UserRepository;
 import com.maven.restapi.security.BCrypt;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Objects;
 
@@ -29,7 +29,7 @@ public class UserService {
         validationService.validate(request);
 
         if (userRepository.existsById(request.getUsername())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User name already register");
+            throw new BadRequestException("User name already register");
         }
 
         User user = new User();
@@ -51,19 +51,21 @@ public class UserService {
     public UserResponse update(User user, UpdateUserRequest request) {
         validationService.validate(request);
 
-        if(Objects.nonNull(request.getName())) {
-            user.setName(request.getName());
-        }
-
+        String password = null;
         if (Objects.nonNull(request.getPassword())) {
-            user.setPassword(BCrypt.hashpw(request.getPassword(), BCrypt.gensalt()));
+            password = BCrypt.hashpw(request.getPassword(), BCrypt.gensalt());
         }
 
-        userRepository.save(user);
+        // A single UPDATE by id and version: the user comes from the token lookup and is not reloaded or merged.
+        if (Objects.nonNull(request.getName()) || Objects.nonNull(password)) {
+            if (userRepository.updateProfile(user.getUsername(), user.getVersion(), request.getName(), password) == 0) {
+                throw new ObjectOptimisticLockingFailureException(User.class, user.getUsername());
+            }
+        }
 
         return UserResponse.builder()
                 .username(user.getUsername())
-                .name(user.getName())
+                .name(Objects.nonNull(request.getName()) ? request.getName() : user.getName())
                 .build();
     }
 
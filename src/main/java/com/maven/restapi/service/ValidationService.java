@@ -1,21 +1,55 @@
 package com.maven.restapi.service;
 
+import com.maven.restapi.monitoring.ValidationEvent;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
+import jdk.jfr.EventType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ValidationService {
 
+    // Checked before creating the event, so a valid request allocates nothing while the event is disabled.
+    private static final EventType VALIDATION_EVENT = EventType.getEventType(ValidationEvent.class);
+
     @Autowired
     private Validator validator;
 
+    private final Map<Class<?>, ConstraintChecks> constraintChecks = new ConcurrentHashMap<>();
+
     public void validate(Object object) {
-        Set<ConstraintViolation<Object>> constraintViolations = validator.validate(object);
+        ValidationEvent event = VALIDATION_EVENT.isEnabled() ? new ValidationEvent() : null;
+        if (Objects.nonNull(event)) {
+            event.begin();
+        }
+
+        Class<?> type = object.getClass();
+        ConstraintChecks checks = constraintChecks.get(type);
+        boolean cacheHit = Objects.nonNull(checks);
+        if (!cacheHit) {
+            checks = constraintChecks.computeIfAbsent(type, key -> ConstraintChecks.compile(key, validator));
+        }
+
+        // Valid requests are accepted by the compiled checks without allocating; the full validator only runs
+        // to build the violation messages, or for classes whose constraints could not be compiled.
+        boolean fastPath = checks.passes(object);
+        Set<ConstraintViolation<Object>> constraintViolations = fastPath ? Set.of() : validator.validate(object);
+
+        if (Objects.nonNull(event) && event.shouldCommit()) {
+            event.setType(type);
+            event.setCacheHit(cacheHit);
+            event.setFastPath(fastPath);
+            event.setViolations(constraintViolations.size());
+            event.commit();
+        }
+
         if (constraintViolations.size() != 0) {
             throw new ConstraintViolationException(constraintViolations);
         }
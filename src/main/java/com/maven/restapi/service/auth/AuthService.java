@@ -2,62 +2,112 @@ package com.maven.restapi.service.auth;
 
 import com.maven.restapi.dto.LoginUserRequest;
 import com.maven.restapi.dto.TokenResponse;
+import com.maven.restapi.exception.UnauthorizedException;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.entity.UserSession;
 import com.maven.restapi.models.repository.UserRepository;
+import com.maven.restapi.models.repository.UserSessionRepository;
+import com.maven.restapi.monitoring.PasswordVerificationEvent;
 import com.maven.restapi.security.BCrypt;
+import com.maven.restapi.security.LoginThrottle;
+import com.maven.restapi.security.TokenExpiryTracker;
+import com.maven.restapi.security.TokenHasher;
 import com.maven.restapi.service.ValidationService;
 import jakarta.transaction.Transactional;
+import jdk.jfr.EventType;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class AuthService {
 
+    private static final UnauthorizedException WRONG_CREDENTIALS = new UnauthorizedException("Username or Password wrong");
+
+    private static final EventType PASSWORD_VERIFICATION_EVENT = EventType.getEventType(PasswordVerificationEvent.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private TokenExpiryTracker tokenExpiryTracker;
+
+    @Value("${restapi.session.max-per-user:10}")
+    private int maxSessionsPerUser;
+
     @Transactional
     public TokenResponse login(LoginUserRequest request) {
         validationService.validate(request);
+        LoginThrottle.Attempt attempt = loginThrottle.acquire(request.getUsername(), request.getRemoteAddress());
+
+        User user = userRepository.findById(request.getUsername()).orElse(null);
+        if (Objects.isNull(user)) {
+            throw WRONG_CREDENTIALS;
+        }
 
-        User user = userRepository.findById(request.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Username or Password wrong"));
+        if(checkPassword(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordSuccess(attempt);
+            removeOldestSessions(user);
 
-        if(BCrypt.checkpw(request.getPassword(), user.getPassword())) {
-            user.setToken(UUID.randomUUID().toString());
-            user.setTokenExpiredAt(next30Days());
+            String token = UUID.randomUUID().toString();
+            UserSession session = new UserSession();
+            session.setTokenHash(TokenHasher.hash(token));
+            session.setUser(user);
+            session.setCreatedAt(System.currentTimeMillis());
+            session.setExpiresAt(tokenExpiryTracker.newExpiry());
 
-            userRepository.save(user);
+            userSessionRepository.save(session);
 
             return TokenResponse.builder()
-                    .token(user.getToken())
-                    .expiredAt(user.getTokenExpiredAt())
+                    .token(token)
+                    .expiredAt(session.getExpiresAt())
                     .build();
         } else {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Username or Password wrong");
+            throw WRONG_CREDENTIALS;
         }
     }
 
     @Transactional
-    public void logout(User user) {
-        user.setToken(null);
-        user.setTokenExpiredAt(null);
-
-        userRepository.save(user);
+    public void logout(User user, String token) {
+        byte[] tokenHash = TokenHasher.hash(token);
+        tokenExpiryTracker.forget(tokenHash);
+        userSessionRepository.deleteByTokenHash(tokenHash);
     }
 
-    private Long next30Days() {
-        long milliseconds = 1000L * 60 * 60 * 24 * 30;
+    // Keeps room for the new session; the sessions closest to expiry go first.
+    private void removeOldestSessions(User user) {
+        List<UserSession> sessions = userSessionRepository.findByUserOrderByExpiresAtAsc(user);
+        int excess = sessions.size() - maxSessionsPerUser + 1;
+        if (excess > 0) {
+            userSessionRepository.deleteAllInBatch(sessions.subList(0, excess));
+        }
+    }
 
-        return System.currentTimeMillis() + milliseconds;
+    private boolean checkPassword(String password, String hashed) {
+        PasswordVerificationEvent event = PASSWORD_VERIFICATION_EVENT.isEnabled() ? new PasswordVerificationEvent() : null;
+        if (Objects.nonNull(event)) {
+            event.begin();
+        }
+        boolean matched = BCrypt.checkpw(password, hashed);
+        if (Objects.nonNull(event) && event.shouldCommit()) {
+            event.setLogRounds(Integer.parseInt(hashed.substring(4, 6)));
+            event.setMatched(matched);
+            event.commit();
+        }
+        return matched;
     }
 
 }
@@ -0,0 +1,84 @@
+package com.maven.restapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.maven.restapi.controller.ConstantResponse;
+import com.maven.restapi.controller.ConstantResponseHttpMessageConverter;
+import com.maven.restapi.dto.WebResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing the {@code {"data":"Ok"}} envelope through the Jackson converter, which builds and serializes a new
+ * {@link WebResponse} per request, against {@link ConstantResponseHttpMessageConverter}, which copies bytes
+ * serialized at startup. The GC profiler reports the allocations per operation that the constant avoids.
+ * <p>
+ * Run with {@code mvn test-compile} followed by the {@link #main(String[])} method of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstantResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new JsonMapper();
+
+    private final MappingJackson2HttpMessageConverter jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+
+    private final ConstantResponseHttpMessageConverter constantConverter = new ConstantResponseHttpMessageConverter(
+            Map.of(MediaType.APPLICATION_JSON, objectMapper)).register(ConstantResponse.CONTACT_OK);
+
+    private final DiscardingOutputMessage message = new DiscardingOutputMessage();
+
+    @Benchmark
+    public HttpHeaders jackson() throws Exception {
+        message.getHeaders().clear();
+        jacksonConverter.write(WebResponse.<String>builder().data("Ok").build(), MediaType.APPLICATION_JSON, message);
+        return message.getHeaders();
+    }
+
+    @Benchmark
+    public HttpHeaders constant() throws Exception {
+        message.getHeaders().clear();
+        constantConverter.write(ConstantResponse.CONTACT_OK, MediaType.APPLICATION_JSON, message);
+        return message.getHeaders();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConstantResponseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    // Stands in for the servlet response, so only what the converters allocate is measured.
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final OutputStream body = OutputStream.nullOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.maven.restapi.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.maven.restapi.dto.ContactResponse;
+import com.maven.restapi.dto.PagingResponse;
+import com.maven.restapi.dto.WebResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares payload size and encode/decode time of JSON against the binary formats negotiated by the controllers.
+ * <p>
+ * Run with {@code mvn test-compile} followed by the {@link #main(String[])} method of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentNegotiationBenchmark {
+
+    private static final TypeReference<WebResponse<List<ContactResponse>>> TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "100"})
+    private int contacts;
+
+    private ObjectMapper mapper;
+
+    private WebResponse<List<ContactResponse>> response;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new JsonMapper();
+        };
+
+        List<ContactResponse> data = new ArrayList<>(contacts);
+        for (int i = 0; i < contacts; i++) {
+            data.add(ContactResponse.builder()
+                    .id(UUID.randomUUID().toString())
+                    .firstName("First " + i)
+                    .lastName("Last " + i)
+                    .email("contact" + i + "@example.com")
+                    .phone("0812" + (10000000 + i))
+                    .build());
+        }
+        response = WebResponse.<List<ContactResponse>>builder()
+                .data(data)
+                .paging(PagingResponse.builder().currentPage(0).totalPage(1).size(contacts).build())
+                .build();
+
+        encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n%s payload with %d contacts: %d bytes%n", format, contacts, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public WebResponse<List<ContactResponse>> decode() throws Exception {
+        return mapper.readValue(encoded, TYPE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContentNegotiationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.maven.restapi.benchmark;
+
+import com.maven.restapi.controller.ErrorController;
+import com.maven.restapi.dto.WebResponse;
+import com.maven.restapi.exception.ApiException;
+import com.maven.restapi.exception.NotFoundException;
+import com.maven.restapi.exception.UnauthorizedException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the 401/404 error path (throw, unwind, build the error response) of {@link ResponseStatusException}
+ * against the stackless {@link ApiException} hierarchy. {@code depth} simulates the frames Spring MVC and the
+ * repository proxies put between the throw and the handler, which is what makes stack capture expensive.
+ * <p>
+ * Run with {@code mvn test-compile} followed by the {@link #main(String[])} method of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionPathBenchmark {
+
+    private static final NotFoundException CONTACT_NOT_FOUND = new NotFoundException("Contact not found.");
+
+    @Param({"10", "100"})
+    private int depth;
+
+    private final ErrorController errorController = new ErrorController();
+
+    @Benchmark
+    public ResponseEntity<WebResponse<String>> unauthorizedResponseStatusException() {
+        try {
+            throwAt(depth, 0);
+            return null;
+        } catch (ResponseStatusException exception) {
+            return errorController.apiException(exception);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<WebResponse<String>> unauthorizedPreallocated() {
+        try {
+            throwAt(depth, 1);
+            return null;
+        } catch (ApiException exception) {
+            return errorController.domainException(exception);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<WebResponse<String>> notFoundResponseStatusException() {
+        try {
+            throwAt(depth, 2);
+            return null;
+        } catch (ResponseStatusException exception) {
+            return errorController.apiException(exception);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<WebResponse<String>> notFoundPreallocated() {
+        try {
+            throwAt(depth, 3);
+            return null;
+        } catch (ApiException exception) {
+            return errorController.domainException(exception);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<WebResponse<String>> notFoundStackless() {
+        try {
+            throwAt(depth, 4);
+            return null;
+        } catch (ApiException exception) {
+            return errorController.domainException(exception);
+        }
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static void throwAt(int depth, int kind) {
+        if (depth > 0) {
+            throwAt(depth - 1, kind);
+            return;
+        }
+
+        switch (kind) {
+            case 0 -> throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+            case 1 -> throw UnauthorizedException.UNAUTHORIZED;
+            case 2 -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found.");
+            case 3 -> throw CONTACT_NOT_FOUND;
+            default -> throw new NotFoundException("Contact not found.");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExceptionPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.maven.restapi.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.maven.restapi.dto.ContactResponse;
+import com.maven.restapi.dto.PagingResponse;
+import com.maven.restapi.dto.WebResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSON serialization of a contact search page with a reflective {@link ObjectMapper} against one with
+ * {@link BlackbirdModule} registered and a writer created once for the type. Both come from a
+ * {@link Jackson2ObjectMapperBuilder} set up the way Spring Boot sets up the application's one, which has no
+ * {@code spring.jackson} properties.
+ * <p>
+ * Run with {@code mvn test-compile} followed by the {@link #main(String[])} method of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<WebResponse<List<ContactResponse>>> TYPE = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "1000"})
+    private int contacts;
+
+    private final ObjectMapper defaultMapper = builder().build();
+
+    private final ObjectWriter tunedWriter = builder()
+            .modulesToInstall(new BlackbirdModule())
+            .build()
+            .writerFor(TYPE);
+
+    private WebResponse<List<ContactResponse>> response;
+
+    @Setup
+    public void setUp() {
+        List<ContactResponse> data = new ArrayList<>(contacts);
+        for (int i = 0; i < contacts; i++) {
+            data.add(ContactResponse.builder()
+                    .id(UUID.randomUUID().toString())
+                    .firstName("First " + i)
+                    .lastName("Last " + i)
+                    .email("contact" + i + "@example.com")
+                    .phone("0812" + (10000000 + i))
+                    .build());
+        }
+        response = WebResponse.<List<ContactResponse>>builder()
+                .data(data)
+                .paging(PagingResponse.builder().currentPage(0).totalPage(1).size(contacts).build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] reflective() throws Exception {
+        return defaultMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] blackbird() throws Exception {
+        return tunedWriter.writeValueAsBytes(response);
+    }
+
+    // Spring Boot's defaults when no spring.jackson properties are set; module beans are added with modulesToInstall.
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
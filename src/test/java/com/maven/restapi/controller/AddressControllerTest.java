@@ -9,22 +9,30 @@ import com.maven.restapi.dto.WebResponse;
 import com.maven.restapi.models.entity.Address;
 import com.maven.restapi.models.entity.Contact;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.entity.UserSession;
 import com.maven.restapi.models.repository.AddressRepository;
 import com.maven.restapi.models.repository.ContactRepository;
 import com.maven.restapi.models.repository.UserRepository;
+import com.maven.restapi.models.repository.UserSessionRepository;
 import com.maven.restapi.security.BCrypt;
+import com.maven.restapi.security.TokenHasher;
+import com.maven.restapi.service.SerializedResponseCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static com.maven.restapi.monitoring.RecordedQueries.statements;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.MockMvcBuilder.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +41,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 public class AddressControllerTest {
 
     @Autowired
@@ -41,6 +50,9 @@ public class AddressControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
     @Autowired
     private ContactRepository contactRepository;
 
@@ -50,14 +62,23 @@ public class AddressControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+
+    private static final String TOKEN = "exampleToken";
+
     private User user;
     private Contact contact;
     private Address address;
 
     @BeforeEach
     void setUp() {
-        addressRepository.deleteAll();
-        contactRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM addresses");
+        jdbcTemplate.update("DELETE FROM contacts");
+        serializedResponseCache.invalidateAll();
         userRepository.deleteAll();
 
         // fake data user
@@ -65,10 +86,15 @@ public class AddressControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + (1000 * 16 * 24 * 30));
         userRepository.save(user);
 
+        UserSession session = new UserSession();
+        session.setTokenHash(TokenHasher.hash(TOKEN));
+        session.setUser(user);
+        session.setCreatedAt(System.currentTimeMillis());
+        session.setExpiresAt(System.currentTimeMillis() + (1000 * 16 * 24 * 30));
+        userSessionRepository.save(session);
+
         // fake data contact
         contact = new Contact();
         contact.setId(UUID.randomUUID().toString());
@@ -102,7 +128,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 post("/api/contacts/not-found/addresses")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
@@ -131,7 +157,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 post("/api/contacts/" + contact.getId() + "/addresses")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
@@ -160,13 +186,15 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 post("/api/contacts/" + contact.getId() + "/addresses")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(3, statements(result));
+
             WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -184,7 +212,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 get("/api/contacts/" + contact.getId() + "/addresses/not-found")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
@@ -207,7 +235,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 get("/api/contacts/not-found/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
@@ -229,12 +257,14 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 get("/api/contacts/"+contact.getId()+"/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(2, statements(result));
+
             WebResponse<AddressResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -271,7 +301,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 put("/api/contacts/not-found/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
@@ -300,7 +330,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 put("/api/contacts/"+contact.getId()+"/addresses/not-found")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
@@ -329,7 +359,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 put("/api/contacts/"+contact.getId()+"/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
@@ -345,6 +375,36 @@ public class AddressControllerTest {
         });
     }
 
+    @Test
+    void updateAddressIfMatchMismatch() throws Exception {
+        contactRepository.save(contact);
+        addressRepository.save(address);
+
+        UpdateAddressRequest request = new UpdateAddressRequest();
+        request.setStreet("JL Test Update Street");
+        request.setCountry("Test Country");
+
+        mockMvc.perform(
+                put("/api/contacts/"+contact.getId()+"/addresses/"+address.getId())
+                        .header("X-API-Token", TOKEN)
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+        ).andExpectAll(
+                status().isPreconditionFailed()
+        ).andDo(result -> {
+            WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertNotNull(response.getErrors());
+        });
+
+        Address addressDb = addressRepository.findById(address.getId()).orElseThrow();
+        assertEquals(address.getStreet(), addressDb.getStreet());
+        assertEquals(0L, addressDb.getVersion());
+    }
+
     @Test
     void updateAddressSuccess() throws Exception{
         contactRepository.save(contact);
@@ -359,13 +419,15 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 put("/api/contacts/"+contact.getId()+"/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(3, statements(result));
+
             WebResponse<AddressResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -396,7 +458,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 delete("/api/contacts/" + contact.getId() + "/addresses/not-found")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
@@ -418,7 +480,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 delete("/api/contacts/not-found/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
@@ -440,12 +502,14 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 delete("/api/contacts/"+contact.getId()+"/addresses/"+address.getId())
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(2, statements(result));
+
             WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -454,6 +518,14 @@ public class AddressControllerTest {
             assertEquals("Ok", response.getData());
             assertFalse(addressRepository.existsById(address.getId()));
         });
+
+        mockMvc.perform(
+                get("/api/contacts/"+contact.getId()+"/addresses/"+address.getId())
+                        .header("X-API-Token", TOKEN)
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpectAll(
+                status().isNotFound()
+        );
     }
 
     @Test
@@ -462,7 +534,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 get("/api/contacts/not-found/addresses")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
@@ -484,7 +556,7 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 get("/api/contacts/"+contact.getId()+"/addresses")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
@@ -517,12 +589,14 @@ public class AddressControllerTest {
 
         mockMvc.perform(
                 get("/api/contacts/"+contact.getId()+"/addresses")
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(3, statements(result));
+
             WebResponse<List<AddressResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -531,4 +605,30 @@ public class AddressControllerTest {
             assertEquals(100, response.getData().size());
         });
     }
+
+    @Test
+    void listAddressesWithFields() throws Exception {
+        contactRepository.save(contact);
+        addressRepository.save(address);
+
+        mockMvc.perform(
+                get("/api/contacts/"+contact.getId()+"/addresses")
+                        .queryParam("fields", "city,country")
+                        .header("X-API-Token", TOKEN)
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data[0].street").doesNotExist()
+        ).andDo(result -> {
+            WebResponse<List<AddressResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertNull(response.getErrors());
+            assertEquals(1, response.getData().size());
+            assertEquals(address.getId(), response.getData().get(0).getId());
+            assertEquals(address.getCity(), response.getData().get(0).getCity());
+            assertEquals(address.getCountry(), response.getData().get(0).getCountry());
+            assertNull(response.getData().get(0).getPostalCode());
+        });
+    }
 }
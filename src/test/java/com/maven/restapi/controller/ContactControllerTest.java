@@ -2,26 +2,41 @@ package com.maven.restapi.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.maven.restapi.dto.ContactResponse;
 import com.maven.restapi.dto.CreateContactRequest;
 import com.maven.restapi.dto.UpdateContactRequest;
 import com.maven.restapi.dto.WebResponse;
+import com.maven.restapi.models.entity.Address;
 import com.maven.restapi.models.entity.Contact;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.entity.UserSession;
+import com.maven.restapi.models.repository.AddressRepository;
 import com.maven.restapi.models.repository.ContactRepository;
 import com.maven.restapi.models.repository.UserRepository;
+import com.maven.restapi.models.repository.UserSessionRepository;
 import com.maven.restapi.security.BCrypt;
+import com.maven.restapi.security.TokenHasher;
+import com.maven.restapi.service.ContactSearchCache;
+import com.maven.restapi.service.SerializedResponseCache;
+import com.maven.restapi.service.SoftDeletePurger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static com.maven.restapi.monitoring.RecordedQueries.statements;
+import static com.maven.restapi.monitoring.RecordedQueries.updates;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.MockMvcBuilder.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +45,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 public class ContactControllerTest {
 
     @Autowired
@@ -38,29 +54,57 @@ public class ContactControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private SoftDeletePurger softDeletePurger;
+
+    @Autowired
+    private ContactSearchCache contactSearchCache;
+
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final String TOKEN = "exampleToken";
+
     private User user;
 
     private Contact contact;
 
     @BeforeEach
     void setUp() {
-        contactRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM addresses");
+        jdbcTemplate.update("DELETE FROM contacts");
         userRepository.deleteAll();
+        contactSearchCache.invalidateAll();
+        serializedResponseCache.invalidateAll();
 
         user = new User();
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + (1000 * 16 * 24 * 30));
         userRepository.save(user);
 
+        UserSession session = new UserSession();
+        session.setTokenHash(TokenHasher.hash(TOKEN));
+        session.setUser(user);
+        session.setCreatedAt(System.currentTimeMillis());
+        session.setExpiresAt(System.currentTimeMillis() + (1000 * 16 * 24 * 30));
+        userSessionRepository.save(session);
+
         contact = new Contact();
         contact.setFirstName("Gerry");
         contact.setLastName("Putra");
@@ -79,7 +123,7 @@ public class ContactControllerTest {
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isBadRequest()
         ).andDo(result -> {
@@ -104,10 +148,12 @@ public class ContactControllerTest {
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(2, statements(result));
+
             WebResponse<ContactResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -138,7 +184,7 @@ public class ContactControllerTest {
                 get("/api/contacts/not-found")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isNotFound()
         ).andDo(result -> {
@@ -161,10 +207,14 @@ public class ContactControllerTest {
                 get("/api/contacts/" + contact.getId())
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(2, statements(result));
+            assertFalse(result.getResponse().getContentAsString().contains("\"errors\""));
+            assertFalse(result.getResponse().getContentAsString().contains("\"paging\""));
+
             WebResponse<ContactResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -177,6 +227,96 @@ public class ContactControllerTest {
         });
     }
 
+    @Test
+    void getContactCachedUntilUpdate() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        for (int expectedStatements : new int[]{2, 1}) {
+            mockMvc.perform(
+                    get("/api/contacts/" + contact.getId())
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-API-Token", TOKEN)
+            ).andExpectAll(
+                    status().isOk(),
+                    content().contentType(MediaType.APPLICATION_JSON),
+                    header().string(HttpHeaders.ETAG, "\"0\""),
+                    jsonPath("$.data.firstName").value("Gerry"),
+                    jsonPath("$.errors").doesNotExist()
+            ).andDo(result -> assertEquals(expectedStatements, statements(result)));
+        }
+
+        UpdateContactRequest request = new UpdateContactRequest();
+        request.setFirstName("Permana");
+
+        mockMvc.perform(
+                patch("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"1\""),
+                jsonPath("$.data.firstName").value("Permana")
+        ).andDo(result -> assertEquals(2, statements(result)));
+    }
+
+    @Test
+    void getContactNotModified() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(
+                    get("/api/contacts/" + contact.getId())
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                            .header("X-API-Token", TOKEN)
+            ).andExpectAll(
+                    status().isNotModified(),
+                    header().string(HttpHeaders.ETAG, "\"0\""),
+                    content().bytes(new byte[0])
+            );
+        }
+    }
+
+    @Test
+    void getContactSuccessCbor() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+
+        contactRepository.save(contact);
+
+        mockMvc.perform(
+                get("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_CBOR)
+        ).andDo(result -> {
+            WebResponse<ContactResponse> response = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), new TypeReference<>() {
+            });
+
+            assertNull(response.getErrors());
+            assertNotNull(response.getData());
+            assertEquals(contact.getId(), response.getData().getId());
+            assertEquals(contact.getFirstName(), response.getData().getFirstName());
+            assertEquals(contact.getEmail(), response.getData().getEmail());
+        });
+    }
+
     @Test
     void updateContactNotFoundId() throws Exception {
         contact.setId(UUID.randomUUID().toString());
@@ -191,7 +331,7 @@ public class ContactControllerTest {
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isNotFound()
         ).andDo(result -> {
@@ -218,7 +358,7 @@ public class ContactControllerTest {
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isBadRequest()
         ).andDo(result -> {
@@ -244,10 +384,12 @@ public class ContactControllerTest {
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(3, statements(result));
+
             WebResponse<ContactResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -259,6 +401,108 @@ public class ContactControllerTest {
         });
     }
 
+    @Test
+    void updateContactWritesOnlyChangedColumns() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        UpdateContactRequest request = new UpdateContactRequest();
+        request.setFirstName("updateContact");
+
+        mockMvc.perform(
+                patch("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            List<String> updates = updates(result);
+            assertEquals(1, updates.size());
+            assertTrue(updates.get(0).startsWith("update contacts set first_name=?,version=? where"), updates.get(0));
+        });
+    }
+
+    @Test
+    void updateContactWithoutChangesSkipsUpdate() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        UpdateContactRequest request = new UpdateContactRequest();
+        request.setFirstName(contact.getFirstName());
+        request.setEmail(contact.getEmail());
+
+        mockMvc.perform(
+                patch("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"0\"")
+        ).andDo(result -> {
+            assertEquals(2, statements(result));
+            assertTrue(updates(result).isEmpty());
+        });
+    }
+
+    @Test
+    void updateContactIfMatch() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        mockMvc.perform(
+                get("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"0\"")
+        );
+
+        UpdateContactRequest request = new UpdateContactRequest();
+        request.setFirstName("updateContact");
+
+        mockMvc.perform(
+                patch("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("X-API-Token", TOKEN)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+        ).andExpectAll(
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"1\"")
+        );
+
+        request.setFirstName("staleUpdate");
+
+        mockMvc.perform(
+                patch("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("X-API-Token", TOKEN)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+        ).andExpectAll(
+                status().isPreconditionFailed()
+        ).andDo(result -> {
+            WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertNotNull(response.getErrors());
+        });
+
+        Contact contactDb = contactRepository.findById(contact.getId()).orElseThrow();
+        assertEquals("updateContact", contactDb.getFirstName());
+        assertEquals(1L, contactDb.getVersion());
+    }
+
     @Test
     void deleteContactNotFound() throws Exception {
         contact.setId(UUID.randomUUID().toString());
@@ -268,7 +512,7 @@ public class ContactControllerTest {
         mockMvc.perform(
                 delete("/api/contacts/not-found")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isNotFound()
         ).andDo(result -> {
@@ -290,10 +534,12 @@ public class ContactControllerTest {
         mockMvc.perform(
                 delete("/api/contacts/" + contact.getId())
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(3, statements(result));
+
             WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -303,13 +549,152 @@ public class ContactControllerTest {
         });
     }
 
+    @Test
+    void deleteContactSuccessCbor() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        mockMvc.perform(
+                delete("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_CBOR)
+        ).andDo(result -> {
+            WebResponse<String> response = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), new TypeReference<>() {
+            });
+
+            assertNull(response.getErrors());
+            assertEquals("Ok", response.getData());
+            assertEquals(result.getResponse().getContentAsByteArray().length, result.getResponse().getContentLength());
+        });
+    }
+
+    @Test
+    void deleteContactWithAddresses() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        for (int i = 0; i < 3; i++) {
+            Address address = new Address();
+            address.setId(UUID.randomUUID().toString());
+            address.setContact(contact);
+            address.setCountry("Indonesia");
+            addressRepository.save(address);
+        }
+
+        mockMvc.perform(
+                delete("/api/contacts/" + contact.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            assertEquals(3, statements(result));
+        });
+
+        assertFalse(contactRepository.existsById(contact.getId()));
+        assertEquals(0, addressRepository.count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE deleted_at IS NOT NULL", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM addresses WHERE deleted_at IS NOT NULL", Integer.class));
+
+        assertEquals(0, softDeletePurger.purge());
+
+        jdbcTemplate.update("UPDATE contacts SET deleted_at = deleted_at - 7200000");
+        jdbcTemplate.update("UPDATE addresses SET deleted_at = deleted_at - 7200000");
+        assertEquals(4, softDeletePurger.purge());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM addresses", Integer.class));
+    }
+
+    @Test
+    void deleteContactsBulk() throws Exception {
+        User other = new User();
+        other.setUsername("other@example.com");
+        other.setPassword("password");
+        other.setName("other");
+        userRepository.save(other);
+
+        Contact otherContact = new Contact();
+        otherContact.setId(UUID.randomUUID().toString());
+        otherContact.setUser(other);
+        otherContact.setFirstName("Other");
+        contactRepository.save(otherContact);
+
+        Address otherAddress = new Address();
+        otherAddress.setId(UUID.randomUUID().toString());
+        otherAddress.setContact(otherContact);
+        otherAddress.setCountry("Indonesia");
+        addressRepository.save(otherAddress);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Contact bulk = new Contact();
+            bulk.setId(UUID.randomUUID().toString());
+            bulk.setUser(user);
+            bulk.setFirstName("Bulk " + i);
+            contactRepository.save(bulk);
+
+            Address address = new Address();
+            address.setId(UUID.randomUUID().toString());
+            address.setContact(bulk);
+            address.setCountry("Indonesia");
+            addressRepository.save(address);
+
+            ids.add(bulk.getId());
+        }
+        ids.add(otherContact.getId());
+        ids.add("not-found");
+
+        mockMvc.perform(
+                delete("/api/contacts")
+                        .param("ids", String.join(",", ids))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            assertEquals(3, statements(result));
+
+            WebResponse<Integer> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertNull(response.getErrors());
+            assertEquals(5, response.getData());
+        });
+
+        assertEquals(1, contactRepository.count());
+        assertTrue(contactRepository.existsById(otherContact.getId()));
+        assertEquals(1, addressRepository.count());
+    }
+
+    @Test
+    void deleteContactsBulkTooMany() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+
+        mockMvc.perform(
+                delete("/api/contacts")
+                        .param("ids", String.join(",", ids))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isBadRequest()
+        );
+    }
+
     @Test
     void searchContactNotFound() throws Exception {
 
         mockMvc.perform(
                 get("/api/contacts")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
@@ -341,10 +726,12 @@ public class ContactControllerTest {
                         .queryParam("name", "Gerry")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(3, statements(result));
+
             WebResponse<List<ContactResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -361,7 +748,7 @@ public class ContactControllerTest {
                         .queryParam("name", "Permana")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
@@ -381,7 +768,7 @@ public class ContactControllerTest {
                         .queryParam("email", "example")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
@@ -402,7 +789,7 @@ public class ContactControllerTest {
                         .queryParam("page", "2")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
@@ -423,7 +810,7 @@ public class ContactControllerTest {
                         .queryParam("page", "10000")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", TOKEN)
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
@@ -438,4 +825,101 @@ public class ContactControllerTest {
         });
     }
 
+    @Test
+    void searchContactCachedUntilWrite() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        for (int expectedStatements : new int[]{2, 1}) {
+            mockMvc.perform(
+                    get("/api/contacts")
+                            .queryParam("name", "Gerry")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-API-Token", TOKEN)
+            ).andExpectAll(
+                    status().isOk(),
+                    jsonPath("$.data.length()").value(1)
+            ).andDo(result -> assertEquals(expectedStatements, statements(result)));
+        }
+
+        CreateContactRequest request = new CreateContactRequest();
+        request.setFirstName("Gerry Second");
+        request.setEmail("second@test.com");
+        request.setPhone(contact.getPhone());
+
+        mockMvc.perform(
+                post("/api/contacts")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/contacts")
+                        .queryParam("name", "Gerry")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data.length()").value(2)
+        ).andDo(result -> assertEquals(2, statements(result)));
+    }
+
+    @Test
+    void searchContactWithFields() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            contact.setId(UUID.randomUUID().toString());
+            contact.setFirstName("Gerry " + i);
+            contact.setUser(user);
+            contactRepository.save(contact);
+        }
+
+        mockMvc.perform(
+                get("/api/contacts")
+                        .queryParam("name", "Gerry")
+                        .queryParam("fields", "firstName")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isOk(),
+                jsonPath("$.data[0].email").doesNotExist(),
+                jsonPath("$.data[0].lastName").doesNotExist()
+        ).andDo(result -> {
+            WebResponse<List<ContactResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertNull(response.getErrors());
+            assertEquals(10, response.getData().size());
+            assertEquals(2, response.getPaging().getTotalPage());
+            assertNotNull(response.getData().get(0).getId());
+            assertTrue(response.getData().get(0).getFirstName().startsWith("Gerry"));
+            assertNull(response.getData().get(0).getPhone());
+        });
+    }
+
+    @Test
+    void getContactUnknownField() throws Exception {
+        contact.setId(UUID.randomUUID().toString());
+        contact.setUser(user);
+        contactRepository.save(contact);
+
+        mockMvc.perform(
+                get("/api/contacts/" + contact.getId())
+                        .queryParam("fields", "firstName,password")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", TOKEN)
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+            WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertNotNull(response.getErrors());
+            assertNull(response.getData());
+        });
+    }
 }
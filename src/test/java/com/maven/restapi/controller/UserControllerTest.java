@@ -7,8 +7,15 @@ import com.maven.restapi.dto.UpdateUserRequest;
 import com.maven.restapi.dto.UserResponse;
 import com.maven.restapi.dto.WebResponse;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.entity.UserSession;
 import com.maven.restapi.models.repository.UserRepository;
+import com.maven.restapi.models.repository.UserSessionRepository;
 import com.maven.restapi.security.BCrypt;
+import com.maven.restapi.security.ExpiredTokenSweeper;
+import com.maven.restapi.security.LegacyTokenMigration;
+import com.maven.restapi.security.TokenExpiryTracker;
+import com.maven.restapi.security.TokenHasher;
+import com.maven.restapi.service.UserService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,8 +25,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Example;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.maven.restapi.monitoring.RecordedQueries.statements;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.MockMvcBuilder.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -28,6 +39,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 class UserControllerTest {
 
     private static final Logger log = LogManager.getLogger(UserControllerTest.class);
@@ -38,9 +50,27 @@ class UserControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TokenExpiryTracker tokenExpiryTracker;
+
+    @Autowired
+    private ExpiredTokenSweeper expiredTokenSweeper;
+
+    @Autowired
+    private LegacyTokenMigration legacyTokenMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -160,14 +190,13 @@ class UserControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() - (1000 * 16 * 24 * 30));
         userRepository.save(user);
+        createSession(user, "exampleToken", System.currentTimeMillis() - (1000 * 16 * 24 * 30));
 
         mockMvc.perform(
                 get("/api/users/current")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", "exampleToken")
         ).andExpectAll(
                 status().isUnauthorized()
         ).andDo(result -> {
@@ -188,15 +217,13 @@ class UserControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + milliseconds);
-
         userRepository.save(user);
+        createSession(user, "exampleToken", System.currentTimeMillis() + milliseconds);
 
         mockMvc.perform(
                 get("/api/users/current")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", "exampleToken")
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
@@ -208,17 +235,94 @@ class UserControllerTest {
             assertEquals(user.getUsername(), response.getData().getUsername());
             assertEquals(user.getName(), response.getData().getName());
 
-            User userDB = userRepository.findFirstByToken(user.getToken())
+            User userDB = userRepository.findById(user.getUsername())
                     .orElse(null);
 
             assertNotNull(userDB);
             assertEquals(userDB.getUsername(), user.getUsername());
             assertEquals(userDB.getName(), user.getName());
-            assertEquals(userDB.getToken(), user.getToken());
-            assertEquals(userDB.getTokenExpiredAt(), user.getTokenExpiredAt());
         });
     }
 
+    @Test
+    void getUserExtendsTokenExpiry() throws Exception {
+        User user = new User();
+        user.setUsername("example@example.com");
+        user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
+        user.setName("example");
+        userRepository.save(user);
+
+        UserSession session = new UserSession();
+        session.setTokenHash(TokenHasher.hash("exampleToken"));
+        session.setUser(user);
+        session.setCreatedAt(System.currentTimeMillis());
+        session.setExpiresAt(System.currentTimeMillis() + 60_000);
+        userSessionRepository.save(session);
+
+        mockMvc.perform(
+                get("/api/users/current")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", "exampleToken")
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        assertEquals(session.getExpiresAt(), userSessionRepository.findById(session.getTokenHash()).orElseThrow().getExpiresAt());
+
+        tokenExpiryTracker.flush();
+
+        UserSession sessionDB = userSessionRepository.findById(session.getTokenHash()).orElseThrow();
+        assertTrue(sessionDB.getExpiresAt() > System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 29);
+    }
+
+    @Test
+    void sweepDeletesOnlyExpiredSessions() {
+        User user = new User();
+        user.setUsername("example@example.com");
+        user.setPassword("password");
+        user.setName("example");
+        userRepository.save(user);
+
+        UserSession expired = createSession(user, "expiredToken", System.currentTimeMillis() - 1000L * 60 * 60);
+        UserSession active = createSession(user, "activeToken", System.currentTimeMillis() + 1000L * 60 * 60);
+
+        assertEquals(1, expiredTokenSweeper.sweep());
+        assertFalse(userSessionRepository.existsById(expired.getTokenHash()));
+        assertTrue(userSessionRepository.existsById(active.getTokenHash()));
+    }
+
+    @Test
+    void legacyTokenMigratesToSession() throws Exception {
+        User user = new User();
+        user.setUsername("example@example.com");
+        user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
+        user.setName("example");
+        userRepository.save(user);
+
+        jdbcTemplate.execute("ALTER TABLE users ADD COLUMN token VARCHAR(100)");
+        jdbcTemplate.execute("ALTER TABLE users ADD COLUMN token_expired_at BIGINT");
+        try {
+            long expiredAt = System.currentTimeMillis() + 1000L * 60 * 60;
+            jdbcTemplate.update("UPDATE users SET token = ?, token_expired_at = ? WHERE username = ?",
+                    "legacyToken", expiredAt, user.getUsername());
+
+            assertEquals(1, legacyTokenMigration.migrate());
+            assertNull(jdbcTemplate.queryForObject("SELECT token FROM users WHERE username = ?", String.class,
+                    user.getUsername()));
+            assertEquals(expiredAt, userSessionRepository.findById(TokenHasher.hash("legacyToken")).orElseThrow().getExpiresAt());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users DROP COLUMN token_expired_at");
+            jdbcTemplate.execute("ALTER TABLE users DROP COLUMN token");
+        }
+
+        mockMvc.perform(
+                get("/api/users/current")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-Token", "legacyToken")
+        ).andExpectAll(
+                status().isOk()
+        );
+    }
     @Test
     void updateUserUnauthorized() throws Exception {
         mockMvc.perform(
@@ -245,9 +349,8 @@ class UserControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + milliseconds);
         userRepository.save(user);
+        createSession(user, "exampleToken", System.currentTimeMillis() + milliseconds);
 
         UpdateUserRequest request = new UpdateUserRequest();
         request.setPassword("password1");
@@ -256,7 +359,7 @@ class UserControllerTest {
         mockMvc.perform(
                 patch("/api/users/current")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", "exampleToken")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
         ).andExpectAll(
@@ -279,9 +382,8 @@ class UserControllerTest {
         user.setUsername("test@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("tokenApi");
-        user.setTokenExpiredAt(System.currentTimeMillis() + milliseconds);
         userRepository.save(user);
+        createSession(user, "tokenApi", System.currentTimeMillis() + milliseconds);
 
         UpdateUserRequest request = new UpdateUserRequest();
         request.setPassword("Lorem ipsum dolor sit amet, consectetur adipiscing elit. Quisque tempor erat id erat laoreet mollis. Nullam porttitor, sapien in pretium dictum, turpis nibh imperdiet mauris, pretium laoreet dui risus quis neque. Vestibulum vitae dapibus libero. Nulla magna sem, cursus eget neque ac, efficitur lacinia sem. Vestibulum vel felis quis est ullamcorper interdum. Quisque malesuada laoreet felis a posuere. Pellentesque a elit ac urna convallis euismod et eget justo. Pellentesque in lorem pulvinar, molestie leo a, facilisis turpis. Nulla vestibulum vitae neque a faucibus. Fusce eu commodo elit, eget tincidunt ligula. Etiam sit amet leo at arcu varius tempus a sit amet dolor. Morbi tempor rutrum ligula, in suscipit diam vulputate ac. Sed accumsan, arcu vitae pulvinar vestibulum, mi ante tristique.");
@@ -290,7 +392,7 @@ class UserControllerTest {
         mockMvc.perform(
                 patch("/api/users/current")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", "tokenApi")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
         ).andExpectAll(
@@ -312,9 +414,8 @@ class UserControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + milliseconds);
         userRepository.save(user);
+        createSession(user, "exampleToken", System.currentTimeMillis() + milliseconds);
 
         UpdateUserRequest request = new UpdateUserRequest();
         request.setPassword("password1");
@@ -323,12 +424,14 @@ class UserControllerTest {
         mockMvc.perform(
                 patch("/api/users/current")
                         .accept(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", "exampleToken")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(2, statements(result));
+
             WebResponse<UserResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
@@ -337,10 +440,36 @@ class UserControllerTest {
             assertEquals(request.getName(), response.getData().getName());
             assertEquals(user.getUsername(), response.getData().getUsername());
 
-            User userDB = userRepository.findFirstByToken(user.getToken())
+            User userDB = userRepository.findById(user.getUsername())
                             .orElse(null);
             assertEquals(userDB.getName(), request.getName());
             assertTrue(BCrypt.checkpw(request.getPassword(), userDB.getPassword()));
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateUserStaleVersion() {
+        User user = new User();
+        user.setUsername("example@example.com");
+        user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
+        user.setName("example");
+        userRepository.save(user);
+        User stale = userRepository.findById(user.getUsername()).orElseThrow();
+        jdbcTemplate.update("update users set version = version + 1 where username = ?", user.getUsername());
+
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("example1");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userService.update(stale, request));
+        assertEquals("example", userRepository.findById(user.getUsername()).orElseThrow().getName());
+    }
+
+    private UserSession createSession(User user, String token, long expiresAt) {
+        UserSession session = new UserSession();
+        session.setTokenHash(TokenHasher.hash(token));
+        session.setUser(user);
+        session.setCreatedAt(System.currentTimeMillis());
+        session.setExpiresAt(expiresAt);
+        return userSessionRepository.save(session);
+    }
+}
@@ -6,22 +6,28 @@ import com.maven.restapi.dto.LoginUserRequest;
 import com.maven.restapi.dto.TokenResponse;
 import com.maven.restapi.dto.WebResponse;
 import com.maven.restapi.models.entity.User;
+import com.maven.restapi.models.entity.UserSession;
 import com.maven.restapi.models.repository.UserRepository;
+import com.maven.restapi.models.repository.UserSessionRepository;
 import com.maven.restapi.security.BCrypt;
+import com.maven.restapi.security.TokenHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.maven.restapi.monitoring.RecordedQueries.statements;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 public class AuthControllerTest {
 
     @Autowired
@@ -33,6 +39,9 @@ public class AuthControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -65,10 +74,10 @@ public class AuthControllerTest {
              assertNotNull(response.getData().getToken());
              assertNotNull(response.getData().getExpiredAt());
 
-            User userDB = userRepository.findById(request.getUsername()).orElse(null);
-            assertNotNull(userDB);
-            assertEquals(userDB.getToken(), response.getData().getToken());
-            assertEquals(userDB.getTokenExpiredAt(), response.getData().getExpiredAt());
+            UserSession sessionDB = userSessionRepository.findFirstByTokenHash(TokenHasher.hash(response.getData().getToken())).orElse(null);
+            assertNotNull(sessionDB);
+            assertEquals(request.getUsername(), sessionDB.getUser().getUsername());
+            assertEquals(sessionDB.getExpiresAt(), response.getData().getExpiredAt());
 
         });
     }
@@ -158,11 +167,15 @@ public class AuthControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + milliseconds);
-
         userRepository.save(user);
 
+        UserSession session = new UserSession();
+        session.setTokenHash(TokenHasher.hash("exampleToken"));
+        session.setUser(user);
+        session.setCreatedAt(System.currentTimeMillis());
+        session.setExpiresAt(System.currentTimeMillis() + milliseconds);
+        userSessionRepository.save(session);
+
         mockMvc.perform(
                 delete("/api/auth/logout")
                         .accept(MediaType.APPLICATION_JSON)
@@ -187,25 +200,70 @@ public class AuthControllerTest {
         user.setUsername("example@example.com");
         user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
         user.setName("example");
-        user.setToken("exampleToken");
-        user.setTokenExpiredAt(System.currentTimeMillis() + milliseconds);
-
         userRepository.save(user);
 
+        UserSession session = new UserSession();
+        session.setTokenHash(TokenHasher.hash("exampleToken"));
+        session.setUser(user);
+        session.setCreatedAt(System.currentTimeMillis());
+        session.setExpiresAt(System.currentTimeMillis() + milliseconds);
+        userSessionRepository.save(session);
+
         mockMvc.perform(
                 delete( "/api/auth/logout")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .header("X-API-Token", user.getToken())
+                        .header("X-API-Token", "exampleToken")
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
+            assertEquals(2, statements(result));
+
             WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals("OK", response.getData());
             assertNull(response.getErrors());
         });
+
+        assertFalse(userSessionRepository.existsById(session.getTokenHash()));
+    }
+
+    @Test
+    void loginKeepsSessionsOfOtherDevices() throws Exception {
+        User user = new User();
+        user.setUsername("example@example.com");
+        user.setPassword(BCrypt.hashpw("password", BCrypt.gensalt()));
+        user.setName("example");
+        userRepository.save(user);
+
+        String firstToken = login(user.getUsername());
+        String secondToken = login(user.getUsername());
+        assertNotEquals(firstToken, secondToken);
+
+        mockMvc.perform(get("/api/users/current").header("X-API-Token", firstToken)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/current").header("X-API-Token", secondToken)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/auth/logout").header("X-API-Token", firstToken)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/current").header("X-API-Token", firstToken)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users/current").header("X-API-Token", secondToken)).andExpect(status().isOk());
     }
 
+    private String login(String username) throws Exception {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setUsername(username);
+        request.setPassword("password");
+
+        String content = mockMvc.perform(
+                post("/api/auth/login")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+        ).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        WebResponse<TokenResponse> response = objectMapper.readValue(content, new TypeReference<>() {
+        });
+        return response.getData().getToken();
+    }
 }
@@ -0,0 +1,28 @@
+package com.maven.restapi.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+/**
+ * Reads the {@link QueryStats} a request recorded, for asserting on statement counts in MockMvc tests.
+ */
+public final class RecordedQueries {
+
+    private RecordedQueries() {
+    }
+
+    public static QueryStats of(MvcResult result) {
+        return (QueryStats) result.getRequest().getAttribute(QueryStats.ATTRIBUTE);
+    }
+
+    public static int statements(MvcResult result) {
+        return of(result).getStatements();
+    }
+
+    public static List<String> updates(MvcResult result) {
+        return of(result).getSql().stream()
+                .filter(sql -> sql.regionMatches(true, 0, "update", 0, 6))
+                .toList();
+    }
+}
@@ -0,0 +1,150 @@
+package com.maven.restapi.security;
+
+import com.maven.restapi.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final LoginThrottle loginThrottle = new LoginThrottle(3, 10, Duration.ofMinutes(1),
+            Duration.ofSeconds(1), Duration.ofSeconds(60), 1000, clock::get);
+
+    @Test
+    void blocksUsernameAfterMaxFailuresWithExponentialBackoff() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("gerry", "10.0.0.1");
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("GERRY", "10.0.0.2"));
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1, loginThrottle.getRejectedByUsername());
+
+        clock.addAndGet(SECOND);
+        loginThrottle.acquire("gerry", "10.0.0.1");
+        exception = assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("gerry", "10.0.0.1"));
+        assertEquals(2, exception.getRetryAfterSeconds());
+
+        clock.addAndGet(2 * SECOND);
+        loginThrottle.acquire("gerry", "10.0.0.1");
+        exception = assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("gerry", "10.0.0.1"));
+        assertEquals(4, exception.getRetryAfterSeconds());
+
+        assertDoesNotThrow(() -> loginThrottle.acquire("other", "10.0.0.2"));
+    }
+
+    @Test
+    void concurrentAttemptsAreCountedBeforeVerification() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            attempts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    loginThrottle.acquire("gerry", "10.0.0." + Thread.currentThread().getId());
+                    return true;
+                } catch (TooManyRequestsException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int allowed = 0;
+        for (Future<Boolean> attempt : attempts) {
+            allowed += attempt.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void successRefundsOnlyItsOwnAttempt() {
+        for (int i = 0; i < 9; i++) {
+            loginThrottle.acquire("user" + i, "10.0.0.1");
+        }
+        loginThrottle.recordSuccess(loginThrottle.acquire("gerry", "10.0.0.1"));
+
+        assertDoesNotThrow(() -> loginThrottle.acquire("gerry", "10.0.0.1"));
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("gerry", "10.0.0.1"));
+        assertEquals(1, loginThrottle.getRejectedBySource());
+        assertDoesNotThrow(() -> loginThrottle.acquire("gerry", "10.0.0.2"));
+    }
+
+    @Test
+    void failuresSlideOutOfTheWindow() {
+        for (int i = 0; i < 2; i++) {
+            loginThrottle.acquire("gerry", "10.0.0.1");
+        }
+
+        // Half of the previous window still overlaps, so it counts as one failure plus the new ones.
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(90));
+        loginThrottle.acquire("gerry", "10.0.0.1");
+        assertDoesNotThrow(() -> loginThrottle.acquire("gerry", "10.0.0.1"));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        for (int i = 0; i < 2; i++) {
+            loginThrottle.acquire("gerry", "10.0.0.1");
+        }
+        assertDoesNotThrow(() -> loginThrottle.acquire("gerry", "10.0.0.1"));
+    }
+
+    @Test
+    void fullTrackerEvictsInsteadOfGrowing() {
+        LoginThrottle small = new LoginThrottle(3, 1000, Duration.ofMinutes(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(60), 4, clock::get);
+        for (int i = 0; i < 100; i++) {
+            small.acquire("made-up" + i, "10.0.0.1");
+        }
+
+        assertTrue(small.getTrackedUsernames() <= 4);
+    }
+
+    @Test
+    void fullTrackerOfBlockedKeysStillAdmitsNewKeys() {
+        LoginThrottle small = new LoginThrottle(3, 1000, Duration.ofMinutes(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(60), 4, clock::get);
+        for (int user = 0; user < 4; user++) {
+            for (int i = 0; i < 3; i++) {
+                small.acquire("user" + user, "10.0.0.1");
+            }
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> small.acquire("gerry", "10.0.0.1"));
+        }
+        assertThrows(TooManyRequestsException.class, () -> small.acquire("gerry", "10.0.0.1"));
+        assertTrue(small.getTrackedUsernames() <= 4);
+    }
+
+    @Test
+    void forgetsKeysOnceTheirWindowAndBlockHavePassed() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.acquire("made-up" + i, "10.0.0." + i);
+        }
+        assertEquals(5, loginThrottle.getTrackedUsernames());
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        loginThrottle.acquire("gerry", "10.0.0.1");
+
+        assertEquals(1, loginThrottle.getTrackedUsernames());
+    }
+}
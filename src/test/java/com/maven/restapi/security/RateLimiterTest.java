@@ -0,0 +1,72 @@
+package com.maven.restapi.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void allowsBurstThenRejectsWithWait() {
+        RateLimiter limiter = new RateLimiter(10, 5, 1000, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("token"));
+        }
+
+        long wait = limiter.tryAcquire("token");
+        assertTrue(wait > 0);
+        assertTrue(wait <= SECOND / 10);
+        assertEquals(1, limiter.getRejected());
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("token"));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        RateLimiter limiter = new RateLimiter(1, 1, 1000, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("first"));
+        assertTrue(limiter.tryAcquire("first") > 0);
+        assertEquals(0, limiter.tryAcquire("second"));
+    }
+
+    @Test
+    void refillsOverTime() {
+        RateLimiter limiter = new RateLimiter(2, 2, 1000, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("token"));
+        assertEquals(0, limiter.tryAcquire("token"));
+        assertTrue(limiter.tryAcquire("token") > 0);
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire("token"));
+        assertEquals(0, limiter.tryAcquire("token"));
+        assertTrue(limiter.tryAcquire("token") > 0);
+    }
+
+    @Test
+    void boundsMemoryAndEvictsIdleKeys() {
+        RateLimiter limiter = new RateLimiter(1, 1, 64, clock::get);
+
+        // A full limiter evicts old keys instead of rejecting new ones.
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("key-" + i));
+        }
+        assertTrue(limiter.size() <= 64);
+        assertEquals(0, limiter.getRejected());
+
+        // Once every bucket has refilled the keys are idle and are forgotten.
+        clock.addAndGet(5 * SECOND);
+        assertEquals(0, limiter.tryAcquire("other"));
+        assertEquals(1, limiter.size());
+    }
+}
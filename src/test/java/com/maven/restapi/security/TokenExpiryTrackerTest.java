@@ -0,0 +1,50 @@
+package com.maven.restapi.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenExpiryTrackerTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private static final byte[] TOKEN = TokenHasher.hash("token");
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private final TokenExpiryTracker tracker = new TokenExpiryTracker(Duration.ofDays(1), Duration.ofHours(1), clock::get);
+
+    @Test
+    void recordsExtensionOnlyAfterRefreshGranularity() {
+        long stored = tracker.newExpiry();
+
+        clock.addAndGet(HOUR - 1);
+        tracker.touch(TOKEN, tracker.expiresAt(TOKEN, stored));
+        assertEquals(0, tracker.getPending());
+        assertEquals(stored, tracker.expiresAt(TOKEN, stored));
+
+        clock.addAndGet(1);
+        tracker.touch(TOKEN, tracker.expiresAt(TOKEN, stored));
+        assertEquals(1, tracker.getPending());
+        assertEquals(stored + HOUR, tracker.expiresAt(TOKEN, stored));
+
+        clock.addAndGet(HOUR / 2);
+        tracker.touch(TOKEN, tracker.expiresAt(TOKEN, stored));
+        assertEquals(stored + HOUR, tracker.expiresAt(TOKEN, stored));
+    }
+
+    @Test
+    void forgetsExtensionOfLoggedOutToken() {
+        long stored = tracker.newExpiry();
+        clock.addAndGet(2 * HOUR);
+        tracker.touch(TOKEN, stored);
+        assertEquals(1, tracker.getPending());
+
+        tracker.forget(TOKEN);
+        assertEquals(0, tracker.getPending());
+        assertEquals(stored, tracker.expiresAt(TOKEN, stored));
+    }
+}
@@ -0,0 +1,51 @@
+package com.maven.restapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticRetryTest {
+
+    private final OptimisticRetry retry = new OptimisticRetry(3, Duration.ofMillis(1));
+
+    @Test
+    void retriesUntilTheUpdateWins() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "updated";
+        });
+
+        assertEquals("updated", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("broken");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,155 @@
+package com.maven.restapi.service;
+
+import com.maven.restapi.exception.NotFoundException;
+import com.maven.restapi.service.SerializedResponseCache.Key;
+import com.maven.restapi.service.SerializedResponseCache.Serialized;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerializedResponseCacheTest {
+
+    private final SerializedResponseCache cache = new SerializedResponseCache(DataSize.ofBytes(2048), DataSize.ofBytes(64), 1);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void returnsCachedBytes() throws IOException {
+        Key key = Key.contact("user", "contact");
+        String body = "{\"data\":{\"id\":\"contact\",\"firstName\":\"" + "x".repeat(100) + "\"}}";
+
+        assertEquals(body, get(cache, key, body));
+        assertEquals(body, get(cache, key, "other"));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(192, cache.getUsedBytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyRead() throws IOException {
+        String body = "x".repeat(256);
+        for (int i = 0; i < 8; i++) {
+            get(cache, Key.contact("user", "contact" + i), body);
+        }
+        get(cache, Key.contact("user", "contact0"), body);
+        get(cache, Key.contact("user", "contact8"), body);
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(9, loads.get());
+        get(cache, Key.contact("user", "contact0"), body);
+        assertEquals(9, loads.get());
+        get(cache, Key.contact("user", "contact1"), body);
+        assertEquals(10, loads.get());
+    }
+
+    @Test
+    void skipsOversizedEntries() throws IOException {
+        Key key = Key.contact("user", "contact");
+        String body = "x".repeat(300);
+
+        get(cache, key, body);
+        get(cache, key, body);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void keepsBlocksOfEntriesBeingRead() throws IOException {
+        Key key = Key.contact("user", "contact");
+        String body = "a".repeat(256);
+        get(cache, key, body);
+
+        StringBuilder read = new StringBuilder();
+        cache.get(key, () -> serialized("loaded"), (version, length, buffers) -> {
+            cache.invalidate(key);
+            for (int i = 0; i < 8; i++) {
+                get(cache, Key.contact("user", "contact" + i), "b".repeat(256));
+            }
+            read.append(decode(buffers));
+        });
+
+        assertEquals(body, read.toString());
+        assertEquals(7 * 256, cache.getUsedBytes());
+    }
+
+    @Test
+    void invalidatesContactWithAddresses() throws IOException {
+        SerializedResponseCache striped = new SerializedResponseCache(DataSize.ofBytes(8192), DataSize.ofBytes(64), 4);
+        Key contact = Key.contact("user", "contact");
+        Key address = Key.address("user", "contact", "address");
+        Key other = Key.address("user", "other", "address");
+
+        get(striped, contact, "contact");
+        get(striped, address, "address");
+        get(striped, other, "other");
+        striped.invalidateContacts("user", List.of("contact"));
+
+        assertEquals("changed", get(striped, contact, "changed"));
+        assertEquals("changed", get(striped, address, "changed"));
+        assertEquals("other", get(striped, other, "changed"));
+    }
+
+    @Test
+    void doesNotCacheLoadsRacingInvalidation() throws IOException {
+        Key key = Key.contact("user", "contact");
+
+        cache.get(key, () -> {
+            cache.invalidate(key);
+            return serialized("stale");
+        }, (version, length, buffers) -> {
+        });
+
+        assertEquals("fresh", get(cache, key, "fresh"));
+    }
+
+    @Test
+    void doesNotCacheFailures() throws IOException {
+        Key key = Key.contact("user", "contact");
+
+        assertThrows(NotFoundException.class, () -> cache.get(key, () -> {
+            throw new NotFoundException("Contact not found.");
+        }, (version, length, buffers) -> {
+        }));
+
+        assertEquals("contact", get(cache, key, "contact"));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void rejectsCapacityBelowOneBlockPerStripe() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SerializedResponseCache(DataSize.ofBytes(128), DataSize.ofBytes(256), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SerializedResponseCache(DataSize.ofBytes(2048), DataSize.ofBytes(256), 16));
+    }
+
+    private String get(SerializedResponseCache cache, Key key, String body) throws IOException {
+        StringBuilder read = new StringBuilder();
+        cache.get(key, () -> {
+            loads.incrementAndGet();
+            return serialized(body);
+        }, (version, length, buffers) -> read.append(decode(buffers)));
+        return read.toString();
+    }
+
+    private static String decode(ByteBuffer[] buffers) {
+        StringBuilder body = new StringBuilder();
+        for (ByteBuffer buffer : buffers) {
+            body.append(StandardCharsets.UTF_8.decode(buffer));
+        }
+        return body.toString();
+    }
+
+    private static Serialized serialized(String body) {
+        return new Serialized(body.getBytes(StandardCharsets.UTF_8), 0L);
+    }
+}
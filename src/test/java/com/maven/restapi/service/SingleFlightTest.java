@@ -0,0 +1,104 @@
+package com.maven.restapi.service;
+
+import com.maven.restapi.exception.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            })));
+        }
+
+        waitForWaiters(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getLoads());
+        assertEquals(CALLERS - 1, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.size());
+        executor.shutdown();
+    }
+
+    @Test
+    void failureIsSharedWithWaiters() throws Exception {
+        NotFoundException notFound = new NotFoundException("Contact not found.");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                await(release);
+                throw notFound;
+            })));
+        }
+
+        waitForWaiters(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(notFound, e.getCause());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void completedCallsAreNotCached() {
+        assertEquals("first", singleFlight.execute("key", () -> "first"));
+        assertEquals("second", singleFlight.execute("key", () -> "second"));
+        assertEquals(2, singleFlight.getLoads());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    @Test
+    void keysAreIndependent() {
+        assertEquals("first", singleFlight.execute("first", () -> singleFlight.execute("second", () -> "first")));
+        assertEquals(2, singleFlight.getLoads());
+    }
+
+    private void waitForWaiters(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalesced() < waiters) {
+            assertTrue(System.nanoTime() < deadline, "callers did not coalesce");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.maven.restapi.service;
+
+import com.maven.restapi.dto.*;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationServiceTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    private static Validator validator;
+
+    private ValidationService validationService;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        validationService = new ValidationService();
+        ReflectionTestUtils.setField(validationService, "validator", validator);
+    }
+
+    @Test
+    void compilesEveryRequestDto() {
+        List<Class<?>> requests = List.of(CreateContactRequest.class, UpdateContactRequest.class, SearchContactRequest.class,
+                CreateAddressRequest.class, UpdateAddressRequest.class, RegisterUserRequest.class,
+                UpdateUserRequest.class, LoginUserRequest.class);
+
+        for (Class<?> request : requests) {
+            assertNotSame(ConstraintChecks.FULL_VALIDATION, ConstraintChecks.compile(request, validator), request.getName());
+        }
+    }
+
+    @Test
+    void fastPathAgreesWithValidator() {
+        List<String> emails = List.of("gerry@example.com", "gerry.putra+tag@mail.example.co.id", "gerry@localhost",
+                "not-an-email", "gerry@", "@example.com", "ger ry@example.com", "gerry@exa mple.com", "\"quoted\"@example.com",
+                "gerry..putra@example.com", ".gerry@example.com", "gerry@-example.com", "gerry@example..com", "",
+                "gerry.@example.com", "gerry@example-.com", "gerry@example.", "\"quoted\".putra@example.com",
+                "\"quoted\"putra@example.com", "\"\"@example.com", "\"unterminated@example.com", "\"at@home\"@example.com",
+                "x".repeat(64) + "@example.com", "x".repeat(65) + "@example.com", "gerry@" + "x".repeat(63) + ".com",
+                "gerry@" + "x".repeat(64) + ".com");
+        List<String> names = List.of("Gerry", "", "   ", "\t\n", "x".repeat(100), "x".repeat(101));
+
+        for (String email : emails) {
+            for (String name : names) {
+                CreateContactRequest request = CreateContactRequest.builder().firstName(name).email(email).build();
+                boolean valid = validator.validate(request).isEmpty();
+
+                assertEquals(valid, ConstraintChecks.compile(CreateContactRequest.class, validator).passes(request),
+                        name + " / " + email);
+                if (valid) {
+                    assertDoesNotThrow(() -> validationService.validate(request));
+                } else {
+                    assertThrows(ConstraintViolationException.class, () -> validationService.validate(request));
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidRequestKeepsValidatorMessages() {
+        UpdateAddressRequest request = UpdateAddressRequest.builder()
+                .contactId("contact")
+                .addressId("address")
+                .country("")
+                .postalCode("12345678901")
+                .build();
+
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+                () -> validationService.validate(request));
+        assertEquals(2, exception.getConstraintViolations().size());
+    }
+}